@@ -1,20 +1,31 @@
 package com.lsa.interpreter;
 
-import com.lsa.interpreter.ui.MainWindow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lsa.interpreter.logic.EvaluationHarness;
+import com.lsa.interpreter.logic.SharedMemoryFrameProducer;
+import com.lsa.interpreter.logic.TemplateStore;
+import com.lsa.interpreter.logic.VideoSegmentProcessor;
+import com.lsa.interpreter.ui.StartupOrchestrator;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 public class Main extends Application {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
     @Override
     public void start(Stage primaryStage) {
         try {
-            MainWindow mainWindow = new MainWindow();
-            mainWindow.show(primaryStage);
-            logger.info("LSA Interpreter application started successfully");
+            // Shows the window right away; natives, dictionary and detectors load in the background
+            new StartupOrchestrator().start(primaryStage);
+            logger.info("LSA Interpreter window shown, initializing in the background");
         } catch (Exception e) {
             logger.error("Failed to start LSA Interpreter application", e);
             System.exit(1);
@@ -22,6 +33,25 @@ public class Main extends Application {
     }
 
     public static void main(String[] args) {
+        if (args.length >= 2 && "--video".equals(args[0])) {
+            loadOpenCv();
+            System.exit(interpretVideo(args[1], args.length > 2 && "--sequential".equals(args[2])));
+        }
+        if (args.length >= 2 && "--evaluate".equals(args[0])) {
+            loadOpenCv();
+            System.exit(evaluate(args[1], args.length > 2 ? args[2] : null));
+        }
+
+        if (args.length >= 2 && "--shm-feed".equals(args[0])) {
+            loadOpenCv();
+            System.exit(feedSharedMemory(args[1], args.length > 2 ? args[2] : null));
+        }
+
+        // Launch JavaFX application; the UI loads OpenCV itself off the FX thread
+        launch(args);
+    }
+
+    private static void loadOpenCv() {
         // Initialize OpenCV (using JavaCV)
         try {
             org.bytedeco.javacpp.Loader.load(org.bytedeco.opencv.opencv_java.class);
@@ -30,8 +60,58 @@ public class Main extends Application {
             logger.error("Failed to load OpenCV native library", e);
             System.exit(1);
         }
-        
-        // Launch JavaFX application
-        launch(args);
+    }
+
+    // Headless mode: interprets a recorded video and prints the signs as JSON lines
+    private static int interpretVideo(String path, boolean sequential) {
+        try {
+            VideoSegmentProcessor processor = new VideoSegmentProcessor(new TemplateStore());
+            VideoSegmentProcessor.Result result = sequential
+                ? processor.processSequential(Paths.get(path))
+                : processor.process(Paths.get(path));
+            Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            result.writeJsonl(out);
+            logger.info("Interpreted {} in {} segments: {} signs in {} ms", path, result.getSegmentCount(),
+                result.getSigns().size(), result.getElapsedNanos() / 1_000_000);
+            return 0;
+        } catch (Exception e) {
+            logger.error("Failed to interpret video {}", path, e);
+            return 1;
+        }
+    }
+
+    // Reference producer: writes a looping video, or a test pattern, into a shared-memory frame ring
+    private static int feedSharedMemory(String ring, String video) {
+        try {
+            if (video != null) {
+                SharedMemoryFrameProducer.feedVideo(Paths.get(ring), Paths.get(video));
+            } else {
+                SharedMemoryFrameProducer.feedTestPattern(Paths.get(ring));
+            }
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            logger.error("Failed to feed shared-memory ring {}", ring, e);
+            return 1;
+        }
+    }
+
+    // Headless mode: scores a manifest of labelled clips and writes the report to a file or stdout
+    private static int evaluate(String manifest, String reportPath) {
+        try {
+            EvaluationHarness harness = new EvaluationHarness(new TemplateStore());
+            JsonNode report = harness.run(Paths.get(manifest));
+            try (Writer out = reportPath != null
+                    ? Files.newBufferedWriter(Paths.get(reportPath), StandardCharsets.UTF_8)
+                    : new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                harness.writeReport(report, out);
+            }
+            return 0;
+        } catch (Exception e) {
+            logger.error("Failed to evaluate manifest {}", manifest, e);
+            return 1;
+        }
     }
 }
@@ -0,0 +1,146 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.MatTracker;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.video.BackgroundSubtractorMOG2;
+import org.opencv.video.Video;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+// Learns the static part of the scene at quarter resolution and masks it out of the skin mask, so
+// skin-coloured furniture and walls stop producing contours and contour work scales with what
+// moves. The model adapts slowly: a hand held still only fades into the background after several
+// seconds. Off by default; select a model with -Dlsa.background=average|mog2.
+// Not thread-safe: one model per gesture detector.
+public class BackgroundModel {
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundModel.class);
+    private static final String COMPONENT = "BackgroundModel";
+    // Roughly 200 frames before a static change is fully absorbed
+    private static final double LEARNING_RATE = 0.005;
+    private static final double DIFF_THRESHOLD = 25;
+    private static final int MOG2_HISTORY = 300;
+    private static final double MOG2_VAR_THRESHOLD = 16;
+
+    private final Mode mode;
+    private final Mat background;
+    private final Mat difference;
+    private final Mat foreground;
+    private final Mat fullForeground;
+    private final Mat dilateKernel;
+    private BackgroundSubtractorMOG2 mog2;
+    private int width;
+    private int height;
+
+    public BackgroundModel() {
+        this(Mode.fromProperty(System.getProperty("lsa.background", "off")));
+    }
+
+    public BackgroundModel(Mode mode) {
+        this.mode = mode;
+        MatTracker tracker = MatTracker.getInstance();
+        this.background = tracker.allocateLongLived(COMPONENT);
+        this.difference = tracker.allocateLongLived(COMPONENT);
+        this.foreground = tracker.allocateLongLived(COMPONENT);
+        this.fullForeground = tracker.allocateLongLived(COMPONENT);
+        // Grows the foreground at quarter scale so hand edges survive the upscale
+        this.dilateKernel = mode == Mode.OFF ? null : tracker.trackLongLived(COMPONENT,
+            Imgproc.getStructuringElement(Imgproc.MORPH_ELLIPSE, new Size(5, 5)));
+        if (mode != Mode.OFF) {
+            logger.info("Background subtraction enabled ({})", mode);
+        }
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Updates the model with the current frame and clears every static pixel of mask in place
+    public void apply(FrameContext context, Mat mask) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        Mat small = context.gray(FrameContext.Scale.QUARTER);
+        if (small.cols() != width || small.rows() != height) {
+            // First frame or a new capture size: start learning from scratch
+            reset();
+            width = small.cols();
+            height = small.rows();
+        }
+
+        if (mode == Mode.MOG2) {
+            mog2.apply(small, foreground);
+            // Shadows are marked 127; only confident foreground (255) counts
+            Imgproc.threshold(foreground, foreground, 200, 255, Imgproc.THRESH_BINARY);
+        } else if (background.empty()) {
+            small.convertTo(background, CvType.CV_32F);
+            // Nothing learned yet: everything is foreground
+            foreground.create(small.size(), CvType.CV_8UC1);
+            foreground.setTo(new Scalar(255));
+        } else {
+            Imgproc.accumulateWeighted(small, background, LEARNING_RATE);
+            background.convertTo(difference, CvType.CV_8U);
+            Core.absdiff(small, difference, difference);
+            Imgproc.threshold(difference, foreground, DIFF_THRESHOLD, 255, Imgproc.THRESH_BINARY);
+        }
+
+        Imgproc.dilate(foreground, foreground, dilateKernel);
+        Imgproc.resize(foreground, fullForeground, mask.size(), 0, 0, Imgproc.INTER_NEAREST);
+        Core.bitwise_and(mask, fullForeground, mask);
+    }
+
+    // Forgets the learned background, e.g. when the camera or the scene changes
+    public void reset() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        // Still tracked; the running average is re-seeded from the next frame
+        background.release();
+        if (mode == Mode.MOG2) {
+            mog2 = Video.createBackgroundSubtractorMOG2(MOG2_HISTORY, MOG2_VAR_THRESHOLD, true);
+        }
+        width = 0;
+        height = 0;
+    }
+
+    // Frees the model's buffers; the model is unusable afterwards
+    public void close() {
+        MatTracker tracker = MatTracker.getInstance();
+        tracker.release(background);
+        tracker.release(difference);
+        tracker.release(foreground);
+        tracker.release(fullForeground);
+        tracker.release(dilateKernel);
+        mog2 = null;
+    }
+
+    public enum Mode {
+        OFF,
+        RUNNING_AVERAGE,
+        MOG2;
+
+        static Mode fromProperty(String value) {
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "average":
+                    return RUNNING_AVERAGE;
+                case "mog2":
+                    return MOG2;
+                case "off":
+                    return OFF;
+                default:
+                    logger.warn("Unknown background model '{}', background subtraction disabled", value);
+                    return OFF;
+            }
+        }
+    }
+}
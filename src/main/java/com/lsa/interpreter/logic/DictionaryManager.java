@@ -8,8 +8,10 @@ import org.slf4j.LoggerFactory;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
 public class DictionaryManager {
     private static final Logger logger = LoggerFactory.getLogger(DictionaryManager.class);
@@ -18,11 +20,15 @@ public class DictionaryManager {
     private final List<SignEntry> dictionary;
     private final List<DictionaryListener> listeners;
     private final ObjectMapper objectMapper;
+    private volatile SignSearchIndex searchIndex;
+    private volatile Map<String, SignEntry> signsByName;
 
     public DictionaryManager() {
         this.dictionary = new ArrayList<>();
         this.listeners = new ArrayList<>();
         this.objectMapper = new ObjectMapper();
+        this.searchIndex = new SignSearchIndex(dictionary);
+        this.signsByName = Collections.emptyMap();
         
         logger.info("DictionaryManager initialized");
     }
@@ -49,6 +55,12 @@ public class DictionaryManager {
                 ));
             }
 
+            searchIndex = new SignSearchIndex(dictionary);
+            Map<String, SignEntry> byName = new HashMap<>();
+            for (SignEntry entry : dictionary) {
+                byName.putIfAbsent(entry.getSign().toUpperCase(Locale.ROOT), entry);
+            }
+            signsByName = byName;
             logger.info("Dictionary loaded successfully with {} entries", dictionary.size());
             notifyDictionaryUpdated();
         } catch (Exception e) {
@@ -57,28 +69,14 @@ public class DictionaryManager {
         }
     }
 
+    // Substring matches first, then names and tags within a few typos, best matches first
     public List<SignEntry> searchSigns(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return new ArrayList<>(dictionary);
-        }
-
-        String normalizedQuery = query.toLowerCase().trim();
-        return dictionary.stream()
-            .filter(entry -> matchesQuery(entry, normalizedQuery))
-            .collect(Collectors.toList());
-    }
-
-    private boolean matchesQuery(SignEntry entry, String query) {
-        return entry.getSign().toLowerCase().contains(query) ||
-               entry.getDescription().toLowerCase().contains(query) ||
-               entry.getTags().toLowerCase().contains(query);
+        return searchIndex.search(query);
     }
 
+    // Case-insensitive; called once per word during text-to-sign resolution, so it is a map lookup
     public SignEntry findSign(String sign) {
-        return dictionary.stream()
-            .filter(entry -> entry.getSign().equalsIgnoreCase(sign))
-            .findFirst()
-            .orElse(null);
+        return sign == null ? null : signsByName.get(sign.toUpperCase(Locale.ROOT));
     }
 
     public List<SignEntry> getAllSigns() {
@@ -0,0 +1,61 @@
+package com.lsa.interpreter.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+interface DistanceKernel {
+    // Squared L2 distances from the query to one block of laneCount() templates.
+    // Blocks are stored dimension-major: templates[offset + d * laneCount() + lane].
+    void blockDistances(float[] query, float[] templates, int offset, int dimension, float[] out);
+
+    int laneCount();
+
+    String name();
+
+    static DistanceKernel create() {
+        Logger logger = LoggerFactory.getLogger(DistanceKernel.class);
+        // The Vector API is an incubator module; only touch it when it has been added to the boot layer
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                DistanceKernel kernel = new SimdDistanceKernel();
+                logger.info("Using SIMD distance kernel ({} lanes)", kernel.laneCount());
+                return kernel;
+            } catch (Throwable t) {
+                logger.warn("SIMD distance kernel unavailable, falling back to scalar", t);
+            }
+        } else {
+            logger.info("jdk.incubator.vector not enabled, using scalar distance kernel");
+        }
+        return new ScalarDistanceKernel();
+    }
+
+    final class ScalarDistanceKernel implements DistanceKernel {
+        // Same blocked layout as the SIMD kernel so the JIT can still auto-vectorize the inner loop
+        private static final int LANES = 8;
+
+        @Override
+        public void blockDistances(float[] query, float[] templates, int offset, int dimension, float[] out) {
+            for (int lane = 0; lane < LANES; lane++) {
+                out[lane] = 0f;
+            }
+            for (int d = 0; d < dimension; d++) {
+                float q = query[d];
+                int row = offset + d * LANES;
+                for (int lane = 0; lane < LANES; lane++) {
+                    float diff = templates[row + lane] - q;
+                    out[lane] += diff * diff;
+                }
+            }
+        }
+
+        @Override
+        public int laneCount() {
+            return LANES;
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsRegistry;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Counts fingers from hand landmarks predicted by the shared HandLandmarkScheduler. The hand crop
+// is queued for the next cross-stream batch and the caller waits at most the deadline; if the
+// landmarks don't arrive in time the contour estimate is used for this frame.
+public class DnnGestureBackend implements GestureBackend {
+    private static final String COMPONENT = "DnnGestureBackend";
+    private static final long DEFAULT_DEADLINE_MS = 15;
+    // Crops are widened so fingertips at the edge of the skin contour stay inside
+    private static final double CROP_MARGIN = 0.2;
+    private static final int WRIST = 0;
+    private static final int PINKY_MCP = 17;
+    private static final int[] FINGER_TIPS = {8, 12, 16, 20};
+    private static final int[] FINGER_PIPS = {6, 10, 14, 18};
+    private static final int THUMB_TIP = 4;
+    private static final int THUMB_IP = 3;
+    // A finger is extended when its tip is this much further from the wrist than its middle joint
+    private static final double EXTENDED_RATIO = 1.1;
+
+    private final HandLandmarkScheduler scheduler;
+    private final long deadlineNanos;
+    private final MetricsRegistry.Counter deadlineMisses;
+
+    public DnnGestureBackend(HandLandmarkScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("lsa.hand.model.deadline.ms", DEFAULT_DEADLINE_MS));
+        this.deadlineMisses = MetricsRegistry.getInstance().counter("lsa_hand_model_deadline_misses_total",
+            "Hands counted with the contour fallback because landmarks arrived too late");
+    }
+
+    @Override
+    public int countFingers(Mat frame, Rect handBounds, int contourFingerCount) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        CompletableFuture<float[]> landmarks = scheduler.submit(crop(frame, handBounds), deadline);
+        try {
+            return countExtended(landmarks.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            landmarks.cancel(false);
+            deadlineMisses.inc();
+            return contourFingerCount;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return contourFingerCount;
+        } catch (Exception e) {
+            // Cancelled or failed batch; already logged by the scheduler
+            return contourFingerCount;
+        }
+    }
+
+    // A square, model-sized copy of the hand region; ownership passes to the scheduler
+    private Mat crop(Mat frame, Rect handBounds) {
+        int side = (int) Math.round(Math.max(handBounds.width, handBounds.height) * (1 + 2 * CROP_MARGIN));
+        int centerX = handBounds.x + handBounds.width / 2;
+        int centerY = handBounds.y + handBounds.height / 2;
+        int x = Math.max(0, centerX - side / 2);
+        int y = Math.max(0, centerY - side / 2);
+        Rect region = new Rect(x, y, Math.max(1, Math.min(side, frame.cols() - x)), Math.max(1, Math.min(side, frame.rows() - y)));
+
+        MatTracker tracker = MatTracker.getInstance();
+        Mat roi = tracker.track(COMPONENT, frame.submat(region));
+        Mat crop = tracker.allocateLongLived(COMPONENT);
+        try {
+            int size = scheduler.getInputSize();
+            Imgproc.resize(roi, crop, new Size(size, size), 0, 0, Imgproc.INTER_AREA);
+        } finally {
+            tracker.release(roi);
+        }
+        return crop;
+    }
+
+    // Distance ratios rather than directions, so the count doesn't depend on hand rotation
+    static int countExtended(float[] landmarks) {
+        int count = 0;
+        for (int i = 0; i < FINGER_TIPS.length; i++) {
+            if (distance(landmarks, WRIST, FINGER_TIPS[i]) > distance(landmarks, WRIST, FINGER_PIPS[i]) * EXTENDED_RATIO) {
+                count++;
+            }
+        }
+        // The thumb folds across the palm, so measure it against the base of the little finger
+        if (distance(landmarks, PINKY_MCP, THUMB_TIP) > distance(landmarks, PINKY_MCP, THUMB_IP) * EXTENDED_RATIO) {
+            count++;
+        }
+        return count;
+    }
+
+    private static double distance(float[] landmarks, int a, int b) {
+        return Math.hypot(landmarks[a * 3] - landmarks[b * 3], landmarks[a * 3 + 1] - landmarks[b * 3 + 1]);
+    }
+
+    @Override
+    public String getName() {
+        return "dnn";
+    }
+}
@@ -0,0 +1,291 @@
+package com.lsa.interpreter.logic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.management.OperatingSystemMXBean;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Runs a manifest of labelled clips through FusionAI and GrammarProcessor under several pipeline
+// configurations and scores the interpreted signs against the labels, so a speed change can be
+// checked for its effect on recognition. A detection counts as a hit when it has the labelled sign
+// and overlaps the labelled time range (widened by a small tolerance); each label is hit at most
+// once. Latency is how long after the labelled end of a sign it was reported, in media time.
+// CPU time is that of the whole process while frames are being processed, so it includes the hand
+// thread and OpenCV's worker threads; decoder threads still busy in the background are counted too,
+// which makes it an upper bound on the pipeline's share.
+// The report is JSON with stable key order, so reports from two builds can be diffed directly.
+//
+// Manifest format (clip paths are relative to the manifest):
+//   {"clips": [{"path": "clips/hola.mp4", "labels": [{"sign": "HOLA", "start": 1200, "end": 2100}]}],
+//    "configurations": [{"name": "full", "qualityLevel": 0, "fusionToleranceMs": 150}]}
+// Configurations are optional and default to one per quality level.
+public class EvaluationHarness {
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationHarness.class);
+    private static final long DEFAULT_MATCH_TOLERANCE_MS = 250;
+    private static final long DEFAULT_FUSION_TOLERANCE_MS = 150;
+
+    private final TemplateStore templateStore;
+    private final ObjectMapper objectMapper;
+    private final long matchToleranceMs;
+
+    public EvaluationHarness(TemplateStore templateStore) {
+        this.templateStore = templateStore;
+        this.objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.matchToleranceMs = Long.getLong("lsa.eval.match.tolerance.ms", DEFAULT_MATCH_TOLERANCE_MS);
+    }
+
+    public JsonNode run(Path manifestFile) throws IOException {
+        JsonNode manifest = objectMapper.readTree(manifestFile.toFile());
+        JsonNode clipsNode = manifest.get("clips");
+        if (clipsNode == null || !clipsNode.isArray()) {
+            throw new IOException("Invalid evaluation manifest, expected a \"clips\" array: " + manifestFile);
+        }
+        Path baseDir = manifestFile.toAbsolutePath().getParent();
+        List<Clip> clips = new ArrayList<>();
+        for (JsonNode clipNode : clipsNode) {
+            List<Label> labels = new ArrayList<>();
+            for (JsonNode label : clipNode.path("labels")) {
+                labels.add(new Label(label.get("sign").asText(), label.get("start").asLong(), label.get("end").asLong()));
+            }
+            clips.add(new Clip(clipNode.get("path").asText(), baseDir.resolve(clipNode.get("path").asText()), labels));
+        }
+
+        List<Configuration> configurations = new ArrayList<>();
+        for (JsonNode config : manifest.path("configurations")) {
+            configurations.add(new Configuration(config.get("name").asText(),
+                config.path("qualityLevel").asInt(0),
+                config.path("fusionToleranceMs").asLong(DEFAULT_FUSION_TOLERANCE_MS)));
+        }
+        if (configurations.isEmpty()) {
+            int levels = new QualityController("eval").getLevelCount();
+            for (int level = 0; level < levels; level++) {
+                configurations.add(new Configuration("quality-" + level, level, DEFAULT_FUSION_TOLERANCE_MS));
+            }
+        }
+
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("manifest", manifestFile.getFileName().toString());
+        report.put("clips", clips.size());
+        report.put("matchToleranceMs", matchToleranceMs);
+        ArrayNode results = report.putArray("configurations");
+        for (Configuration configuration : configurations) {
+            logger.info("Evaluating configuration '{}' on {} clips", configuration.name, clips.size());
+            results.add(evaluate(configuration, clips));
+        }
+        return report;
+    }
+
+    public void writeReport(JsonNode report, Writer out) throws IOException {
+        objectMapper.writeValue(out, report);
+    }
+
+    private ObjectNode evaluate(Configuration configuration, List<Clip> clips) throws IOException {
+        FusionAI fusionAI = new FusionAI("eval-" + configuration.name);
+        fusionAI.getQualityController().pin(configuration.qualityLevel);
+        fusionAI.getFusionWindow().setAlignmentTolerance(configuration.fusionToleranceMs, TimeUnit.MILLISECONDS);
+        fusionAI.setClockOrigin(0);
+        fusionAI.setAnnotationsEnabled(false);
+        Map<String, SignScore> scores = new TreeMap<>();
+        Throughput throughput = new Throughput();
+        try {
+            if (templateStore != null) {
+                templateStore.load(fusionAI.getSignClassifier()).join();
+            }
+            for (Clip clip : clips) {
+                List<Detection> detections = interpret(fusionAI, clip, throughput);
+                score(clip, detections, scores);
+            }
+        } finally {
+            fusionAI.close();
+        }
+
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("name", configuration.name);
+        result.put("qualityLevel", configuration.qualityLevel);
+        result.put("fusionToleranceMs", configuration.fusionToleranceMs);
+
+        SignScore total = new SignScore();
+        ObjectNode signs = objectMapper.createObjectNode();
+        for (Map.Entry<String, SignScore> entry : scores.entrySet()) {
+            total.add(entry.getValue());
+            signs.set(entry.getKey(), entry.getValue().toJson(objectMapper));
+        }
+        ObjectNode summary = total.toJson(objectMapper);
+        summary.put("frames", throughput.frames);
+        summary.put("processingSeconds", round(throughput.wallNanos / 1e9));
+        summary.put("cpuSeconds", round(throughput.cpuNanos / 1e9));
+        summary.put("framesPerSecond", round(throughput.wallNanos > 0 ? throughput.frames * 1e9 / throughput.wallNanos : 0));
+        result.set("summary", summary);
+        result.set("signs", signs);
+        return result;
+    }
+
+    // Decodes a clip through the pipeline, collecting grammar-processed sign events in media time
+    private List<Detection> interpret(FusionAI fusionAI, Clip clip, Throughput throughput) throws IOException {
+        List<Detection> detections = new ArrayList<>();
+        GrammarProcessor grammar = new GrammarProcessor();
+        long[] nowMillis = new long[1];
+        SignStabilizer.SignEventListener collector =
+            event -> detections.add(new Detection(grammar.processResult(event), nowMillis[0]));
+
+        OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+        OpenCVFrameConverter.ToOrgOpenCvCoreMat converter = new OpenCVFrameConverter.ToOrgOpenCvCoreMat();
+        fusionAI.reset();
+        fusionAI.addSignEventListener(collector);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(clip.file.toFile())) {
+            grabber.start();
+            long sequence = 0;
+            Frame frame;
+            while ((frame = grabber.grabImage()) != null) {
+                nowMillis[0] = TimeUnit.MICROSECONDS.toMillis(frame.timestamp);
+                // Only pipeline work is timed, not decoding
+                long cpuStart = os.getProcessCpuTime();
+                long wallStart = System.nanoTime();
+                fusionAI.processFrame(converter.convert(frame), ++sequence, TimeUnit.MICROSECONDS.toNanos(frame.timestamp));
+                throughput.wallNanos += System.nanoTime() - wallStart;
+                throughput.cpuNanos += os.getProcessCpuTime() - cpuStart;
+                throughput.frames++;
+            }
+            fusionAI.flush();
+        } finally {
+            fusionAI.removeSignEventListener(collector);
+        }
+        logger.debug("Clip {}: {} labels, {} detections", clip.name, clip.labels.size(), detections.size());
+        return detections;
+    }
+
+    private void score(Clip clip, List<Detection> detections, Map<String, SignScore> scores) {
+        boolean[] labelHit = new boolean[clip.labels.size()];
+        for (Detection detection : detections) {
+            String sign = detection.result.getDetectedSign();
+            SignScore score = scores.computeIfAbsent(sign, s -> new SignScore());
+            score.detections++;
+            for (int i = 0; i < labelHit.length; i++) {
+                Label label = clip.labels.get(i);
+                if (!labelHit[i] && label.sign.equals(sign) && overlaps(detection.result, label)) {
+                    labelHit[i] = true;
+                    score.truePositives++;
+                    score.recordLatency(detection.reportedAtMillis - label.endMillis);
+                    break;
+                }
+            }
+        }
+        for (Label label : clip.labels) {
+            scores.computeIfAbsent(label.sign, s -> new SignScore()).labels++;
+        }
+    }
+
+    private boolean overlaps(FusionAI.FusionResult result, Label label) {
+        return result.getStartTime() <= label.endMillis + matchToleranceMs
+            && result.getEndTime() >= label.startMillis - matchToleranceMs;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static final class SignScore {
+        private int labels;
+        private int detections;
+        private int truePositives;
+        private long latencySumMillis;
+        private long maxLatencyMillis;
+
+        private void recordLatency(long latencyMillis) {
+            latencySumMillis += latencyMillis;
+            maxLatencyMillis = Math.max(maxLatencyMillis, latencyMillis);
+        }
+
+        private void add(SignScore other) {
+            labels += other.labels;
+            detections += other.detections;
+            truePositives += other.truePositives;
+            latencySumMillis += other.latencySumMillis;
+            maxLatencyMillis = Math.max(maxLatencyMillis, other.maxLatencyMillis);
+        }
+
+        private ObjectNode toJson(ObjectMapper mapper) {
+            ObjectNode node = mapper.createObjectNode();
+            node.put("labels", labels);
+            node.put("detections", detections);
+            node.put("truePositives", truePositives);
+            node.put("precision", round(detections > 0 ? (double) truePositives / detections : 0));
+            node.put("recall", round(labels > 0 ? (double) truePositives / labels : 0));
+            node.put("meanLatencyMs", truePositives > 0 ? latencySumMillis / truePositives : 0);
+            node.put("maxLatencyMs", maxLatencyMillis);
+            return node;
+        }
+    }
+
+    private static final class Throughput {
+        private long frames;
+        private long wallNanos;
+        private long cpuNanos;
+    }
+
+    private static final class Configuration {
+        private final String name;
+        private final int qualityLevel;
+        private final long fusionToleranceMs;
+
+        private Configuration(String name, int qualityLevel, long fusionToleranceMs) {
+            this.name = name;
+            this.qualityLevel = qualityLevel;
+            this.fusionToleranceMs = fusionToleranceMs;
+        }
+    }
+
+    private static final class Clip {
+        private final String name;
+        private final Path file;
+        private final List<Label> labels;
+
+        private Clip(String name, Path file, List<Label> labels) {
+            this.name = name;
+            this.file = file;
+            this.labels = labels;
+        }
+    }
+
+    private static final class Label {
+        private final String sign;
+        private final long startMillis;
+        private final long endMillis;
+
+        private Label(String sign, long startMillis, long endMillis) {
+            this.sign = sign;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+
+    private static final class Detection {
+        private final FusionAI.FusionResult result;
+        // Media time of the frame on which the event was emitted
+        private final long reportedAtMillis;
+
+        private Detection(FusionAI.FusionResult result, long reportedAtMillis) {
+            this.result = result;
+            this.reportedAtMillis = reportedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsRegistry;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Remembers the last expression computed for each face track and reuses it while the face looks
+// the same. Faces are matched to tracks by overlap with the previous frame, and "looks the same"
+// means the 64-bit difference hash of the downscaled face is within a few bits of the hash taken
+// when the expression was last computed. Comparing against that hash rather than the previous
+// frame's means slow drift still triggers a recompute, and a maximum age bounds how stale a
+// result can get. Ages are in frames so offline runs stay deterministic.
+// Not thread-safe: one cache per face detector.
+public class ExpressionCache {
+    private static final String COMPONENT = "ExpressionCache";
+    private static final int DEFAULT_MAX_DISTANCE = 6;
+    private static final int DEFAULT_MAX_AGE_FRAMES = 30;
+    private static final double MIN_TRACK_OVERLAP = 0.3;
+    private static final int MAX_TRACKS = 8;
+    // 9x8 pixels give 8 horizontal gradients per row, 64 bits in all
+    private static final Size HASH_SIZE = new Size(9, 8);
+
+    private final int maxDistance;
+    private final int maxAgeFrames;
+    private final List<Track> tracks;
+    private final Mat thumbnail;
+    private final byte[] pixels;
+    private final MetricsRegistry.Counter hits;
+    private final MetricsRegistry.Counter misses;
+    private long frame;
+
+    public ExpressionCache(String streamId) {
+        this.maxDistance = Integer.getInteger("lsa.expression.cache.distance", DEFAULT_MAX_DISTANCE);
+        this.maxAgeFrames = Integer.getInteger("lsa.expression.cache.age", DEFAULT_MAX_AGE_FRAMES);
+        this.tracks = new ArrayList<>();
+        this.thumbnail = MatTracker.getInstance().allocateLongLived(COMPONENT);
+        this.pixels = new byte[(int) (HASH_SIZE.width * HASH_SIZE.height)];
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.hits = metrics.counter("lsa_expression_cache_total", "Expression lookups by cache outcome",
+            "stream", streamId, "result", "hit");
+        this.misses = metrics.counter("lsa_expression_cache_total", "Expression lookups by cache outcome",
+            "stream", streamId, "result", "miss");
+    }
+
+    // Called once per frame before any lookups; forgets faces that have left
+    public void beginFrame() {
+        frame++;
+        tracks.removeIf(track -> frame - track.lastSeenFrame > maxAgeFrames);
+    }
+
+    // faceBounds is in frame coordinates; faceGray is the 8-bit face region the classifier would see
+    public Result get(Rect faceBounds, Mat faceGray, Classifier classifier) {
+        Track track = claimTrack(faceBounds);
+        long hash = hash(faceGray);
+        Result cached = track.result;
+        if (cached != null
+                && frame - track.computedFrame < maxAgeFrames
+                && Long.bitCount(hash ^ track.hash) <= maxDistance) {
+            hits.inc();
+            return cached;
+        }
+        misses.inc();
+        Result result = classifier.classify(faceGray);
+        track.result = result;
+        track.hash = hash;
+        track.computedFrame = frame;
+        return result;
+    }
+
+    // Frees the hash thumbnail; the cache is unusable afterwards
+    public void close() {
+        tracks.clear();
+        MatTracker.getInstance().release(thumbnail);
+    }
+
+    public void clear() {
+        tracks.clear();
+    }
+
+    private Track claimTrack(Rect bounds) {
+        Track best = null;
+        double bestOverlap = MIN_TRACK_OVERLAP;
+        for (Track track : tracks) {
+            if (track.lastSeenFrame == frame) {
+                // Already matched to another face this frame
+                continue;
+            }
+            double overlap = overlap(track.bounds, bounds);
+            if (overlap >= bestOverlap) {
+                best = track;
+                bestOverlap = overlap;
+            }
+        }
+        if (best == null) {
+            if (tracks.size() >= MAX_TRACKS) {
+                evictOldest();
+            }
+            best = new Track();
+            tracks.add(best);
+        }
+        best.bounds = bounds;
+        best.lastSeenFrame = frame;
+        return best;
+    }
+
+    private void evictOldest() {
+        Track oldest = null;
+        for (Track track : tracks) {
+            if (oldest == null || track.lastSeenFrame < oldest.lastSeenFrame) {
+                oldest = track;
+            }
+        }
+        tracks.remove(oldest);
+    }
+
+    // Intersection over union
+    private static double overlap(Rect a, Rect b) {
+        int x1 = Math.max(a.x, b.x);
+        int y1 = Math.max(a.y, b.y);
+        int x2 = Math.min(a.x + a.width, b.x + b.width);
+        int y2 = Math.min(a.y + a.height, b.y + b.height);
+        if (x2 <= x1 || y2 <= y1) {
+            return 0.0;
+        }
+        double intersection = (double) (x2 - x1) * (y2 - y1);
+        return intersection / (a.area() + b.area() - intersection);
+    }
+
+    // Difference hash: one bit per pair of horizontally adjacent pixels of a 9x8 thumbnail
+    private long hash(Mat faceGray) {
+        Imgproc.resize(faceGray, thumbnail, HASH_SIZE, 0, 0, Imgproc.INTER_AREA);
+        thumbnail.get(0, 0, pixels);
+        int width = (int) HASH_SIZE.width;
+        long hash = 0;
+        int bit = 0;
+        for (int row = 0; row < HASH_SIZE.height; row++) {
+            for (int col = 0; col < width - 1; col++) {
+                int left = pixels[row * width + col] & 0xFF;
+                int right = pixels[row * width + col + 1] & 0xFF;
+                if (left > right) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    public interface Classifier {
+        Result classify(Mat faceGray);
+    }
+
+    public static final class Result {
+        private final String expression;
+        private final double confidence;
+
+        public Result(String expression, double confidence) {
+            this.expression = expression;
+            this.confidence = confidence;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+
+    private static final class Track {
+        private Rect bounds;
+        private long lastSeenFrame;
+        private long hash;
+        private long computedFrame;
+        private Result result;
+    }
+}
@@ -1,5 +1,8 @@
 package com.lsa.interpreter.logic;
 
+import com.lsa.interpreter.util.ErrorLogger;
+import com.lsa.interpreter.util.FlightEvents;
+import com.lsa.interpreter.util.MatTracker;
 import org.opencv.core.*;
 import org.opencv.imgproc.Imgproc;
 import org.opencv.objdetect.CascadeClassifier;
@@ -9,22 +12,33 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class FaceDetector {
     private static final Logger logger = LoggerFactory.getLogger(FaceDetector.class);
     private static final String FACE_CASCADE_FILE = "/haarcascades/haarcascade_frontalface_default.xml";
     private static final String EYE_CASCADE_FILE = "/haarcascades/haarcascade_eye.xml";
     private static final double CONFIDENCE_THRESHOLD = 0.7;
+    private static final double MIN_FACE_SIZE = 30;
+    private static final String DEFAULT_STREAM_ID = "default";
+    private static final String COMPONENT = "FaceDetector";
 
+    private final String streamId;
     private final CascadeClassifier faceCascade;
     private final CascadeClassifier eyeCascade;
     private final List<FaceDetectionListener> listeners;
-    private Mat lastFrame;
+    private final ExpressionCache expressionCache;
+    private long framesSinceEyeDetection;
 
     public FaceDetector() {
-        this.listeners = new ArrayList<>();
+        this(DEFAULT_STREAM_ID);
+    }
+
+    public FaceDetector(String streamId) {
+        this.streamId = streamId;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.expressionCache = new ExpressionCache(streamId);
         this.faceCascade = loadCascadeClassifier(FACE_CASCADE_FILE);
         this.eyeCascade = loadCascadeClassifier(EYE_CASCADE_FILE);
         logger.info("FaceDetector initialized successfully");
@@ -65,75 +79,133 @@ public class FaceDetector {
     }
 
     public void processFrame(Mat frame) {
-        try {
-            this.lastFrame = frame.clone();
-            Mat grayFrame = new Mat();
-            Imgproc.cvtColor(frame, grayFrame, Imgproc.COLOR_BGR2GRAY);
-            Imgproc.equalizeHist(grayFrame, grayFrame);
+        try (FrameContext context = new FrameContext(streamId)) {
+            processFrame(context.begin(frame, 0));
+        }
+    }
 
-            // Detect faces
-            MatOfRect faces = new MatOfRect();
+    public void processFrame(FrameContext context) {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat frame = context.getFrame();
+        long frameSequence = context.getFrameSequence();
+        MatOfRect faces = null;
+        try {
+            QualityController.Settings quality = context.getQuality();
+            double scale = quality.getDetectionScale().getFactor();
+            FlightEvents.DetectorStageEvent stage = beginStage();
+            Mat grayFrame = context.equalizedGray(quality.getDetectionScale());
+            commitStage(stage, frameSequence, "preprocess");
+
+            // Detect faces at the detection scale chosen for this frame
+            stage = beginStage();
+            faces = tracker.track(COMPONENT, new MatOfRect());
+            double minSize = MIN_FACE_SIZE * scale;
             faceCascade.detectMultiScale(grayFrame, faces,
-                1.1, 3, 0,
-                new Size(30, 30), new Size());
+                quality.getCascadeScaleFactor(), 3, 0,
+                new Size(minSize, minSize), new Size());
+            commitStage(stage, frameSequence, "face-cascade");
+
+            // Eye detection is the first thing dropped under load
+            boolean detectEyes = ++framesSinceEyeDetection >= quality.getEyeDetectionInterval();
+            if (detectEyes) {
+                framesSinceEyeDetection = 0;
+            }
 
             // Process each detected face
+            stage = beginStage();
+            expressionCache.beginFrame();
             for (Rect faceRect : faces.toArray()) {
-                processFace(frame, grayFrame, faceRect);
+                processFace(context.getAnnotations(), grayFrame, faceRect, scale, detectEyes);
             }
-
-            // Clean up
-            grayFrame.release();
-            faces.release();
+            commitStage(stage, frameSequence, "face-analysis");
 
             // Notify listeners
             notifyFrameProcessed(frame);
 
         } catch (Exception e) {
-            logger.error("Error processing frame", e);
+            ErrorLogger.getInstance().logError("FaceDetector", "Error processing frame", e);
+        } finally {
+            tracker.release(faces);
+        }
+    }
+
+    private static FlightEvents.DetectorStageEvent beginStage() {
+        FlightEvents.DetectorStageEvent event = new FlightEvents.DetectorStageEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commitStage(FlightEvents.DetectorStageEvent event, long frameSequence, String stage) {
+        if (event.shouldCommit()) {
+            event.streamId = streamId;
+            event.frameSequence = frameSequence;
+            event.detector = "face";
+            event.stage = stage;
+            event.commit();
         }
     }
 
-    private void processFace(Mat frame, Mat grayFrame, Rect faceRect) {
+    // faceRect is in detection-scale coordinates; annotations map it back to the full frame
+    private void processFace(FrameAnnotations annotations, Mat grayFrame, Rect faceRect, double scale, boolean detectEyes) {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat faceROI = null;
+        MatOfRect eyes = null;
         try {
-            // Draw face rectangle
-            Imgproc.rectangle(frame, faceRect, new Scalar(0, 255, 0), 2);
+            Rect faceInFrame = toFrame(faceRect, 0, 0, scale);
+            if (annotations != null) {
+                annotations.rect(faceInFrame, FrameAnnotations.Style.FACE);
+            }
 
             // Extract face ROI
-            Mat faceROI = grayFrame.submat(faceRect);
-
-            // Detect eyes
-            MatOfRect eyes = new MatOfRect();
-            eyeCascade.detectMultiScale(faceROI, eyes);
-
-            // Process eyes
-            for (Rect eyeRect : eyes.toArray()) {
-                // Adjust eye coordinates to frame coordinates
-                eyeRect.x += faceRect.x;
-                eyeRect.y += faceRect.y;
-                Imgproc.rectangle(frame, eyeRect, new Scalar(255, 0, 0), 2);
+            faceROI = tracker.track(COMPONENT, grayFrame.submat(faceRect));
+
+            if (detectEyes) {
+                // Detect eyes
+                eyes = tracker.track(COMPONENT, new MatOfRect());
+                eyeCascade.detectMultiScale(faceROI, eyes);
+
+                // Process eyes
+                if (annotations != null) {
+                    for (Rect eyeRect : eyes.toArray()) {
+                        // Adjust eye coordinates to frame coordinates
+                        annotations.rect(toFrame(eyeRect, faceRect.x, faceRect.y, scale), FrameAnnotations.Style.EYE);
+                    }
+                }
             }
 
-            // Analyze facial expression
-            analyzeFacialExpression(faceROI);
-
-            // Clean up
-            faceROI.release();
-            eyes.release();
+            // Analyze facial expression, reusing the last result while the face looks the same
+            ExpressionCache.Result expression = expressionCache.get(faceInFrame, faceROI, this::analyzeFacialExpression);
+            if (expression != null && expression.getConfidence() >= CONFIDENCE_THRESHOLD) {
+                notifyFacialExpressionDetected(expression.getExpression(), expression.getConfidence());
+            }
 
         } catch (Exception e) {
-            logger.error("Error processing face", e);
+            ErrorLogger.getInstance().logError("FaceDetector", "Error processing face", e);
+        } finally {
+            tracker.release(faceROI);
+            tracker.release(eyes);
         }
     }
 
-    private void analyzeFacialExpression(Mat faceROI) {
+    private static Rect toFrame(Rect rect, int offsetX, int offsetY, double scale) {
+        return new Rect(
+            (int) Math.round((rect.x + offsetX) / scale),
+            (int) Math.round((rect.y + offsetY) / scale),
+            (int) Math.round(rect.width / scale),
+            (int) Math.round(rect.height / scale));
+    }
+
+    private ExpressionCache.Result analyzeFacialExpression(Mat faceROI) {
+        MatTracker tracker = MatTracker.getInstance();
+        MatOfDouble mean = null;
+        MatOfDouble stddev = null;
         try {
             // TODO: Implement more sophisticated facial expression analysis
             // Currently using a simplified approach based on pixel intensity distribution
 
             // Calculate basic statistics
-            MatOfDouble mean = new MatOfDouble();
-            MatOfDouble stddev = new MatOfDouble();
+            mean = tracker.track(COMPONENT, new MatOfDouble());
+            stddev = tracker.track(COMPONENT, new MatOfDouble());
             Core.meanStdDev(faceROI, mean, stddev);
 
             // Simple expression classification based on intensity distribution
@@ -154,20 +226,27 @@ public class FaceDetector {
                 confidence = 0.5;
             }
 
-            // Notify listeners if confidence meets threshold
-            if (confidence >= CONFIDENCE_THRESHOLD) {
-                notifyFacialExpressionDetected(expression, confidence);
-            }
-
-            // Clean up
-            mean.release();
-            stddev.release();
+            return new ExpressionCache.Result(expression, confidence);
 
         } catch (Exception e) {
-            logger.error("Error analyzing facial expression", e);
+            ErrorLogger.getInstance().logError("FaceDetector", "Error analyzing facial expression", e);
+            return null;
+        } finally {
+            tracker.release(mean);
+            tracker.release(stddev);
         }
     }
 
+    // Forgets cached expressions, e.g. when switching to an unrelated input
+    public void reset() {
+        expressionCache.clear();
+    }
+
+    // Frees the expression cache; the detector is unusable afterwards
+    public void close() {
+        expressionCache.close();
+    }
+
     public void addListener(FaceDetectionListener listener) {
         listeners.add(listener);
     }
@@ -0,0 +1,170 @@
+package com.lsa.interpreter.logic;
+
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+
+import java.util.Arrays;
+
+// Detection overlay for one frame as vector primitives (polylines, rectangles, points) in frame
+// pixel coordinates. Detectors record into it instead of drawing into the frame, so the frame
+// stays read-only and drawing is left to the UI. Backing arrays only grow and are reused from
+// frame to frame. Not thread-safe: hand a copy (copyTo) to another thread.
+public class FrameAnnotations {
+    private static final int INITIAL_SHAPES = 64;
+    private static final int INITIAL_COORDS = 1024;
+
+    private Kind[] kinds;
+    private Style[] styles;
+    // Start of each shape's values in coords; a shape ends where the next one starts
+    private int[] offsets;
+    private double[] coords;
+    private int shapeCount;
+    private int coordCount;
+    private long frameSequence;
+    private int frameWidth;
+    private int frameHeight;
+
+    public FrameAnnotations() {
+        this.kinds = new Kind[INITIAL_SHAPES];
+        this.styles = new Style[INITIAL_SHAPES];
+        this.offsets = new int[INITIAL_SHAPES + 1];
+        this.coords = new double[INITIAL_COORDS];
+    }
+
+    // Starts a new frame; keeps the backing arrays
+    public void clear(long frameSequence, int frameWidth, int frameHeight) {
+        this.frameSequence = frameSequence;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        shapeCount = 0;
+        coordCount = 0;
+    }
+
+    public void polyline(Point[] points, boolean closed, Style style) {
+        ensureCapacity(points.length * 2);
+        for (Point point : points) {
+            coords[coordCount++] = point.x;
+            coords[coordCount++] = point.y;
+        }
+        addShape(closed ? Kind.POLYGON : Kind.POLYLINE, style);
+    }
+
+    public void rect(Rect rect, Style style) {
+        ensureCapacity(4);
+        coords[coordCount++] = rect.x;
+        coords[coordCount++] = rect.y;
+        coords[coordCount++] = rect.width;
+        coords[coordCount++] = rect.height;
+        addShape(Kind.RECT, style);
+    }
+
+    public void point(Point point, double radius, Style style) {
+        ensureCapacity(3);
+        coords[coordCount++] = point.x;
+        coords[coordCount++] = point.y;
+        coords[coordCount++] = radius;
+        addShape(Kind.POINT, style);
+    }
+
+    private void addShape(Kind kind, Style style) {
+        if (shapeCount == kinds.length) {
+            int capacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            styles = Arrays.copyOf(styles, capacity);
+            offsets = Arrays.copyOf(offsets, capacity + 1);
+        }
+        kinds[shapeCount] = kind;
+        styles[shapeCount] = style;
+        offsets[++shapeCount] = coordCount;
+    }
+
+    private void ensureCapacity(int extra) {
+        // The shape being added starts where the previous one ended
+        offsets[shapeCount] = coordCount;
+        if (coordCount + extra > coords.length) {
+            coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordCount + extra));
+        }
+    }
+
+    public void render(Renderer renderer) {
+        for (int i = 0; i < shapeCount; i++) {
+            int offset = offsets[i];
+            switch (kinds[i]) {
+                case POLYLINE:
+                case POLYGON:
+                    renderer.polyline(coords, offset, (offsets[i + 1] - offset) / 2, kinds[i] == Kind.POLYGON, styles[i]);
+                    break;
+                case RECT:
+                    renderer.rect(coords[offset], coords[offset + 1], coords[offset + 2], coords[offset + 3], styles[i]);
+                    break;
+                case POINT:
+                    renderer.point(coords[offset], coords[offset + 1], coords[offset + 2], styles[i]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown annotation kind: " + kinds[i]);
+            }
+        }
+    }
+
+    // Copies into target, reusing its arrays when they are large enough
+    public void copyTo(FrameAnnotations target) {
+        if (target.kinds.length < shapeCount) {
+            target.kinds = new Kind[kinds.length];
+            target.styles = new Style[kinds.length];
+            target.offsets = new int[kinds.length + 1];
+        }
+        if (target.coords.length < coordCount) {
+            target.coords = new double[coords.length];
+        }
+        System.arraycopy(kinds, 0, target.kinds, 0, shapeCount);
+        System.arraycopy(styles, 0, target.styles, 0, shapeCount);
+        System.arraycopy(offsets, 0, target.offsets, 0, shapeCount + 1);
+        System.arraycopy(coords, 0, target.coords, 0, coordCount);
+        target.shapeCount = shapeCount;
+        target.coordCount = coordCount;
+        target.frameSequence = frameSequence;
+        target.frameWidth = frameWidth;
+        target.frameHeight = frameHeight;
+    }
+
+    public int size() {
+        return shapeCount;
+    }
+
+    public long getFrameSequence() {
+        return frameSequence;
+    }
+
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+
+    private enum Kind {
+        POLYLINE,
+        POLYGON,
+        RECT,
+        POINT
+    }
+
+    // What a shape marks; the renderer picks colours and line widths
+    public enum Style {
+        HAND_CONTOUR,
+        HAND_HULL,
+        CONVEXITY_DEFECT,
+        FACE,
+        EYE
+    }
+
+    public interface Renderer {
+        // pointCount (x, y) pairs starting at coords[offset]
+        void polyline(double[] coords, int offset, int pointCount, boolean closed, Style style);
+
+        void rect(double x, double y, double width, double height, Style style);
+
+        void point(double x, double y, double radius, Style style);
+    }
+}
@@ -0,0 +1,198 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.MatTracker;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Derived images of the current frame, computed on first request and shared by every detector.
+// Buffers are owned by the context and reused from frame to frame, so once the capture size is
+// stable no native memory is allocated per frame. Not thread-safe: one context per processing thread.
+public class FrameContext implements AutoCloseable {
+    private static final String COMPONENT = "FrameContext";
+
+    private final String streamId;
+    private final Map<Variant, Mat> buffers;
+    private final boolean[] valid;
+    private Mat frame;
+    private long frameSequence;
+    private QualityController.Settings quality;
+    private FrameAnnotations annotations;
+
+    public FrameContext(String streamId) {
+        this.streamId = streamId;
+        this.buffers = new EnumMap<>(Variant.class);
+        this.valid = new boolean[Variant.values().length];
+        MatTracker tracker = MatTracker.getInstance();
+        for (Variant variant : Variant.values()) {
+            buffers.put(variant, tracker.allocateLongLived(COMPONENT));
+        }
+    }
+
+    public FrameContext begin(Mat frame, long frameSequence) {
+        return begin(frame, frameSequence, QualityController.FULL_QUALITY);
+    }
+
+    public FrameContext begin(Mat frame, long frameSequence, QualityController.Settings quality) {
+        return begin(frame, frameSequence, quality, null);
+    }
+
+    // Starts a new frame; everything cached for the previous frame becomes stale
+    public FrameContext begin(Mat frame, long frameSequence, QualityController.Settings quality,
+                              FrameAnnotations annotations) {
+        this.frame = frame;
+        this.frameSequence = frameSequence;
+        this.quality = quality;
+        this.annotations = annotations;
+        if (annotations != null) {
+            annotations.clear(frameSequence, frame.cols(), frame.rows());
+        }
+        Arrays.fill(valid, false);
+        return this;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public long getFrameSequence() {
+        return frameSequence;
+    }
+
+    public Mat getFrame() {
+        return frame;
+    }
+
+    // Quality settings chosen for this frame by the adaptive controller
+    public QualityController.Settings getQuality() {
+        return quality;
+    }
+
+    // Where detectors record their overlay for this frame; null when annotation is switched off
+    public FrameAnnotations getAnnotations() {
+        return annotations;
+    }
+
+    public Mat gray() {
+        return get(Variant.GRAY);
+    }
+
+    public Mat equalizedGray() {
+        return get(Variant.EQUALIZED_GRAY);
+    }
+
+    public Mat gray(Scale scale) {
+        return get(scale.gray);
+    }
+
+    public Mat equalizedGray(Scale scale) {
+        return get(scale.equalizedGray);
+    }
+
+    public Mat hsv() {
+        return get(Variant.HSV);
+    }
+
+    public Mat half() {
+        return get(Variant.HALF);
+    }
+
+    public Mat quarter() {
+        return get(Variant.QUARTER);
+    }
+
+    public boolean isComputed(Variant variant) {
+        return valid[variant.ordinal()];
+    }
+
+    // Returned Mats belong to the context and are only valid until the next begin(); don't release them
+    public Mat get(Variant variant) {
+        Mat buffer = buffers.get(variant);
+        if (!valid[variant.ordinal()]) {
+            compute(variant, buffer);
+            valid[variant.ordinal()] = true;
+        }
+        return buffer;
+    }
+
+    private void compute(Variant variant, Mat out) {
+        switch (variant) {
+            case GRAY:
+                Imgproc.cvtColor(frame, out, Imgproc.COLOR_BGR2GRAY);
+                break;
+            case GRAY_HALF:
+                Imgproc.cvtColor(half(), out, Imgproc.COLOR_BGR2GRAY);
+                break;
+            case GRAY_QUARTER:
+                Imgproc.cvtColor(quarter(), out, Imgproc.COLOR_BGR2GRAY);
+                break;
+            case EQUALIZED_GRAY:
+                Imgproc.equalizeHist(gray(), out);
+                break;
+            case EQUALIZED_GRAY_HALF:
+                Imgproc.equalizeHist(gray(Scale.HALF), out);
+                break;
+            case EQUALIZED_GRAY_QUARTER:
+                Imgproc.equalizeHist(gray(Scale.QUARTER), out);
+                break;
+            case HSV:
+                Imgproc.cvtColor(frame, out, Imgproc.COLOR_BGR2HSV);
+                break;
+            case HALF:
+                Imgproc.resize(frame, out, new Size(frame.cols() / 2, frame.rows() / 2), 0, 0, Imgproc.INTER_AREA);
+                break;
+            case QUARTER:
+                // Downscale the half-size image rather than the full frame; a quarter of the work
+                Mat half = half();
+                Imgproc.resize(half, out, new Size(half.cols() / 2, half.rows() / 2), 0, 0, Imgproc.INTER_AREA);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown frame variant: " + variant);
+        }
+    }
+
+    @Override
+    public void close() {
+        MatTracker tracker = MatTracker.getInstance();
+        for (Mat buffer : buffers.values()) {
+            tracker.release(buffer);
+        }
+        frame = null;
+    }
+
+    public enum Variant {
+        GRAY,
+        EQUALIZED_GRAY,
+        HSV,
+        HALF,
+        QUARTER,
+        GRAY_HALF,
+        GRAY_QUARTER,
+        EQUALIZED_GRAY_HALF,
+        EQUALIZED_GRAY_QUARTER
+    }
+
+    public enum Scale {
+        FULL(1.0, Variant.GRAY, Variant.EQUALIZED_GRAY),
+        HALF(0.5, Variant.GRAY_HALF, Variant.EQUALIZED_GRAY_HALF),
+        QUARTER(0.25, Variant.GRAY_QUARTER, Variant.EQUALIZED_GRAY_QUARTER);
+
+        private final double factor;
+        private final Variant gray;
+        private final Variant equalizedGray;
+
+        Scale(double factor, Variant gray, Variant equalizedGray) {
+            this.factor = factor;
+            this.gray = gray;
+            this.equalizedGray = equalizedGray;
+        }
+
+        public double getFactor() {
+            return factor;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.lsa.interpreter.logic;
+
+import org.opencv.core.Mat;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// A live supply of frames for the pipeline. Frames may be borrowed from the source's own memory
+// (e.g. a shared-memory ring) rather than copied, so a frame is only valid until the next read or
+// close; anything that must outlive that, such as a frame handed to the UI thread, takes a copy.
+public interface FrameSource extends AutoCloseable {
+
+    // Waits up to the timeout for a frame newer than the last one read; null if none arrived
+    Frame read(long timeout, TimeUnit unit) throws IOException, InterruptedException;
+
+    // Frames skipped because the reader fell behind the producer
+    long getDroppedFrames();
+
+    @Override
+    void close();
+
+    interface Frame {
+        Mat getMat();
+
+        // Producer-assigned, strictly increasing; gaps mean dropped frames
+        long getSequence();
+
+        // Capture time on the System.nanoTime() clock, as FusionAI.processFrame expects for live input
+        long getTimestampNanos();
+
+        // False once the producer has started overwriting the frame's memory. Check after using the
+        // pixels: results computed from a frame that is no longer intact may mix two frames.
+        // FusionAI.processFrame takes this check and then drops the frame's results.
+        boolean isIntact();
+    }
+}
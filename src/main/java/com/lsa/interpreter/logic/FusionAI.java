@@ -1,28 +1,85 @@
 package com.lsa.interpreter.logic;
 
+import com.lsa.interpreter.util.ErrorLogger;
+import com.lsa.interpreter.util.FlightEvents;
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsRegistry;
 import org.opencv.core.Mat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 public class FusionAI implements GestureDetector.GestureDetectionListener {
     private static final Logger logger = LoggerFactory.getLogger(FusionAI.class);
     private static final double CONFIDENCE_THRESHOLD = 0.7;
+    private static final int TOP_K = 5;
+    // Gesture-only results are still emitted, but count for less than a gesture confirmed by a face
+    private static final double GESTURE_ONLY_PENALTY = 0.9;
+    private static final String DEFAULT_STREAM_ID = "camera0";
+    private static final BooleanSupplier ALWAYS_INTACT = () -> true;
 
+    private final String streamId;
+    private final AtomicLong frameCounter;
+    private final FrameContext frameContext;
+    private final QualityController qualityController;
     private final GestureDetector gestureDetector;
     private final FaceDetector faceDetector;
     private final GrammarProcessor grammarProcessor;
-    private final List<FusionListener> listeners;
-    private DetectionResult lastGestureResult;
-    private DetectionResult lastFaceResult;
+    private final SignFeatureExtractor featureExtractor;
+    private final SignClassifier signClassifier;
+    private final PipelineEventBus eventBus;
+    private final Map<FusionListener, PipelineEventBus.Subscription> listenerSubscriptions;
+    private final MetricsRegistry.LatencyHistogram processingLatency;
+    private final TemporalFusionWindow fusionWindow;
+    private final SignStabilizer stabilizer;
+    private final List<SignStabilizer.SignEventListener> signEventListeners;
+    private final FrameAnnotations annotations;
+    // Hands reported by the gesture detector for the current frame
+    private final List<GestureDetector.HandObservation> frameHands;
+    // Expressions reported by the face detector for the current frame
+    private final List<TemporalFusionWindow.Observation> frameFaces;
+    private volatile boolean annotationsEnabled;
+    private volatile List<SignClassifier.SignMatch> lastMatches;
+    private long currentFrameSequence;
+    private long currentFrameTimestamp;
+    private long fusedFrameSequence;
 
     public FusionAI() {
-        this.gestureDetector = new GestureDetector();
-        this.faceDetector = new FaceDetector();
+        this(DEFAULT_STREAM_ID);
+    }
+
+    public FusionAI(String streamId) {
+        this.streamId = streamId;
+        this.frameCounter = new AtomicLong();
+        this.frameContext = new FrameContext(streamId);
+        this.qualityController = new QualityController(streamId);
+        this.gestureDetector = new GestureDetector(streamId);
+        this.faceDetector = new FaceDetector(streamId);
         this.grammarProcessor = new GrammarProcessor();
-        this.listeners = new ArrayList<>();
+        this.featureExtractor = new SignFeatureExtractor();
+        this.signClassifier = new SignClassifier();
+        this.eventBus = new PipelineEventBus(streamId);
+        this.listenerSubscriptions = new ConcurrentHashMap<>();
+        this.processingLatency = MetricsRegistry.getInstance().latency(
+            "lsa_fusion_process_frame_seconds", "Latency of FusionAI.processFrame", "stream", streamId);
+        MetricsRegistry.getInstance().gauge("lsa_quality_level", "Adaptive quality level, 0 is full quality",
+            qualityController::getLevel, "stream", streamId);
+        this.fusionWindow = new TemporalFusionWindow();
+        this.stabilizer = new SignStabilizer(this::processSignEvent);
+        this.signEventListeners = new CopyOnWriteArrayList<>();
+        this.annotations = new FrameAnnotations();
+        this.frameHands = new ArrayList<>(GestureDetector.Hand.values().length);
+        this.frameFaces = new ArrayList<>();
+        this.annotationsEnabled = Boolean.parseBoolean(System.getProperty("lsa.annotations", "true"));
+        this.lastMatches = Collections.emptyList();
 
         // Set up internal listeners
         gestureDetector.addListener(this);
@@ -37,68 +94,207 @@ public class FusionAI implements GestureDetector.GestureDetectionListener {
                 handleFacialExpression(expression, confidence);
             }
         });
+        grammarProcessor.addListener(result -> eventBus.publishProcessedResult(fusedFrameSequence, result));
+        eventBus.addSlowConsumerListener((subscriber, dropped) -> MetricsRegistry.getInstance()
+            .counter("lsa_event_bus_dropped_total", "Events skipped by slow event bus subscribers", "subscriber", subscriber)
+            .add(dropped));
 
         logger.info("FusionAI initialized successfully");
     }
 
+    public long nextFrameSequence() {
+        return frameCounter.incrementAndGet();
+    }
+
     public Mat processFrame(Mat frame) {
+        return processFrame(frame, nextFrameSequence());
+    }
+
+    public Mat processFrame(Mat frame, long frameSequence) {
+        return processFrame(frame, frameSequence, System.nanoTime());
+    }
+
+    // timestampNanos is the frame's capture time; offline sources pass media time (see setClockOrigin)
+    public Mat processFrame(Mat frame, long frameSequence, long timestampNanos) {
+        return processFrame(frame, frameSequence, timestampNanos, ALWAYS_INTACT);
+    }
+
+    // For frames borrowed from memory another process may overwrite (see FrameSource): intact is
+    // checked once the detectors have read the pixels, and if it fails nothing seen in the frame
+    // reaches the event bus, the fusion window or the stabilizer
+    public Mat processFrame(Mat frame, long frameSequence, long timestampNanos, BooleanSupplier intact) {
+        long start = System.nanoTime();
+        currentFrameSequence = frameSequence;
+        currentFrameTimestamp = timestampNanos;
+        // Per-frame Mats still allocated when the scope closes are reported as leaks and freed
+        MatTracker.FrameScope frameScope = MatTracker.getInstance().beginFrame(streamId, frameSequence);
         try {
             // Process frame through both detectors
-            gestureDetector.processFrame(frame);
-            faceDetector.processFrame(frame);
+            // Colour conversions and downscales are shared: each is computed at most once per frame
+            frameContext.begin(frame, frameSequence, qualityController.current(),
+                annotationsEnabled ? annotations : null);
+            frameHands.clear();
+            frameFaces.clear();
+            gestureDetector.processFrame(frameContext);
+            faceDetector.processFrame(frameContext);
+            if (!intact.getAsBoolean()) {
+                // Detection may have seen two frames mixed; the frame is dropped without a vote
+                return frame;
+            }
+            for (GestureDetector.HandObservation hand : frameHands) {
+                eventBus.publishGesture(frameSequence, hand.getFingerCount());
+            }
+            addFrameGesture();
+            for (TemporalFusionWindow.Observation face : frameFaces) {
+                addFrameFace(face);
+            }
+
+            // Fuse every gesture whose nearest face observation is now known. Each frame votes exactly
+            // once and in frame order, possibly on a later frame, since frames without a gesture queue
+            // behind the gestures still waiting for a face.
+            fusionWindow.drain(timestampNanos, this::fusionAnalysis);
 
-            // Return the processed frame (with annotations)
+            // Detectors leave the frame untouched; the overlay is in getAnnotations()
             return frame;
         } catch (Exception e) {
-            logger.error("Error processing frame in FusionAI", e);
+            ErrorLogger.getInstance().logError("FusionAI", "Error processing frame in FusionAI", e);
             return frame;
+        } finally {
+            frameScope.close();
+            long elapsed = System.nanoTime() - start;
+            processingLatency.record(elapsed);
+            qualityController.recordFrame(elapsed);
         }
     }
 
     @Override
-    public void onGestureDetected(int fingerCount) {
-        lastGestureResult = new DetectionResult(
-            DetectionType.GESTURE,
-            String.valueOf(fingerCount),
-            calculateGestureConfidence(fingerCount)
-        );
-        
-        fusionAnalysis();
+    public void onGestureDetected(GestureDetector.Hand hand, int fingerCount) {
+        // Published from frameHands once the frame is known to be intact
+    }
+
+    @Override
+    public void onHandObserved(GestureDetector.HandObservation observation) {
+        frameHands.add(observation);
+    }
+
+    // One gesture per frame covering both hands, so the stabilizer still gets one vote per frame.
+    // Sign features come from the larger (nearer, usually dominant) hand; templates are one-handed.
+    private void addFrameGesture() {
+        if (frameHands.isEmpty()) {
+            fusionWindow.addEmptyFrame(currentFrameTimestamp, currentFrameSequence);
+            return;
+        }
+        GestureDetector.HandObservation primary = frameHands.get(0);
+        StringBuilder value = new StringBuilder();
+        double confidence = 1.0;
+        for (GestureDetector.HandObservation hand : frameHands) {
+            if (hand.getRelativeArea() > primary.getRelativeArea()) {
+                primary = hand;
+            }
+            if (value.length() > 0) {
+                value.append('+');
+            }
+            // Left hand first, so "2+5" is always left then right
+            value.append(hand.getFingerCount());
+            confidence = Math.min(confidence, calculateGestureConfidence(hand.getFingerCount()));
+        }
+        featureExtractor.addHandObservation(primary);
+        fusionWindow.addGesture(new TemporalFusionWindow.Observation(
+            value.toString(),
+            confidence,
+            currentFrameTimestamp,
+            currentFrameSequence
+        ));
     }
 
     private void handleFacialExpression(String expression, double confidence) {
-        lastFaceResult = new DetectionResult(
-            DetectionType.FACIAL_EXPRESSION,
+        frameFaces.add(new TemporalFusionWindow.Observation(
             expression,
-            confidence
-        );
-        
-        fusionAnalysis();
+            confidence,
+            currentFrameTimestamp,
+            currentFrameSequence
+        ));
     }
 
-    private void fusionAnalysis() {
-        if (lastGestureResult != null && lastFaceResult != null) {
-            // Combine results from both detectors
-            FusionResult result = new FusionResult(
-                interpretSign(),
-                calculateCombinedConfidence()
-            );
+    private void addFrameFace(TemporalFusionWindow.Observation face) {
+        eventBus.publishFacialExpression(face.getFrameSequence(), face.getValue(), face.getConfidence());
+        featureExtractor.addFaceObservation(face.getValue(), face.getConfidence());
+        fusionWindow.addFace(face);
+    }
+
+    // face is the observation nearest in time to the gesture, or null if none was within tolerance
+    private void fusionAnalysis(TemporalFusionWindow.Observation gesture, TemporalFusionWindow.Observation face) {
+        if (gesture.getValue() == null) {
+            stabilizer.offerNone(gesture.getTimestampNanos());
+            return;
+        }
+        long frameSequence = gesture.getFrameSequence();
+
+        // Combine results from both detectors
+        FlightEvents.FusionEvent fusionEvent = new FlightEvents.FusionEvent();
+        fusionEvent.begin();
+        List<SignClassifier.SignMatch> matches = classifySign();
+        FusionResult result = matches.isEmpty()
+            ? new FusionResult(interpretSign(gesture, face), calculateCombinedConfidence(gesture, face))
+            : new FusionResult(matches.get(0).getSign(), matches.get(0).getConfidence());
+        if (face == null) {
+            result = new FusionResult(result.getDetectedSign(), result.getConfidence() * GESTURE_ONLY_PENALTY);
+        }
+        if (fusionEvent.shouldCommit()) {
+            fusionEvent.streamId = streamId;
+            fusionEvent.frameSequence = frameSequence;
+            fusionEvent.sign = result.getDetectedSign();
+            fusionEvent.confidence = result.getConfidence();
+            fusionEvent.candidates = matches.size();
+            fusionEvent.commit();
+        }
+
+        // Per-frame results only vote; listeners see one event per held sign
+        if (result.getConfidence() >= CONFIDENCE_THRESHOLD) {
+            stabilizer.offer(result.getDetectedSign(), result.getConfidence(), gesture.getTimestampNanos());
+        } else {
+            stabilizer.offerNone(gesture.getTimestampNanos());
+        }
+    }
+
+    private void processSignEvent(FusionResult result) {
+        for (SignStabilizer.SignEventListener listener : signEventListeners) {
+            listener.onSignEvent(result);
+        }
+        long frameSequence = currentFrameSequence;
+        fusedFrameSequence = frameSequence;
 
-            // Process through grammar processor
-            result = grammarProcessor.processResult(result);
+        // Process through grammar processor
+        FlightEvents.GrammarEvent grammarEvent = new FlightEvents.GrammarEvent();
+        grammarEvent.begin();
+        String inputSign = result.getDetectedSign();
+        result = grammarProcessor.processResult(result);
+        if (grammarEvent.shouldCommit()) {
+            grammarEvent.streamId = streamId;
+            grammarEvent.frameSequence = frameSequence;
+            grammarEvent.inputSign = inputSign;
+            grammarEvent.outputSign = result.getDetectedSign();
+            grammarEvent.commit();
+        }
 
-            // Notify listeners
-            notifyListeners(result);
+        // Notify listeners
+        notifyListeners(result, frameSequence);
+    }
 
-            // Reset results
-            lastGestureResult = null;
-            lastFaceResult = null;
+    private List<SignClassifier.SignMatch> classifySign() {
+        if (signClassifier.getTemplateCount() == 0) {
+            return Collections.emptyList();
         }
+
+        // Nearest-neighbour match of the current frame window against the sign templates
+        List<SignClassifier.SignMatch> matches = signClassifier.classify(featureExtractor.extract(), TOP_K);
+        lastMatches = matches;
+        return matches;
     }
 
-    private String interpretSign() {
+    private String interpretSign(TemporalFusionWindow.Observation gesture, TemporalFusionWindow.Observation face) {
         // TODO: Implement more sophisticated sign interpretation
-        return lastGestureResult.value + "_" + lastFaceResult.value;
+        return face != null ? gesture.getValue() + "_" + face.getValue() : gesture.getValue();
     }
 
     private double calculateGestureConfidence(int fingerCount) {
@@ -106,23 +302,128 @@ public class FusionAI implements GestureDetector.GestureDetectionListener {
         return fingerCount > 0 && fingerCount <= 5 ? 0.8 : 0.3;
     }
 
-    private double calculateCombinedConfidence() {
-        return (lastGestureResult.confidence + lastFaceResult.confidence) / 2.0;
+    private double calculateCombinedConfidence(TemporalFusionWindow.Observation gesture,
+                                               TemporalFusionWindow.Observation face) {
+        return face != null ? (gesture.getConfidence() + face.getConfidence()) / 2.0 : gesture.getConfidence();
+    }
+
+    public SignClassifier getSignClassifier() {
+        return signClassifier;
+    }
+
+    public SignFeatureExtractor getFeatureExtractor() {
+        return featureExtractor;
+    }
+
+    public List<SignClassifier.SignMatch> getLastMatches() {
+        return lastMatches;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    // Emits the sign still being held, e.g. when detection is stopped
+    public void flush() {
+        stabilizer.flush();
+    }
+
+    // Forgets all temporal state so the instance can start on an unrelated stretch of video
+    public void reset() {
+        featureExtractor.reset();
+        fusionWindow.clear();
+        stabilizer.reset();
+        grammarProcessor.clearHistory();
+        gestureDetector.getBackgroundModel().reset();
+        gestureDetector.getHandTracker().reset();
+        faceDetector.reset();
+    }
+
+    // Stops the detector threads and event bus subscribers, frees native buffers and drops the
+    // stream's metrics. Call once processing has stopped; the instance is unusable afterwards.
+    public void close() {
+        gestureDetector.close();
+        faceDetector.close();
+        frameContext.close();
+        eventBus.shutdown();
+        listenerSubscriptions.clear();
+        MetricsRegistry.getInstance().removeStream(streamId);
+    }
+
+    // Frame timestamps passed to processFrame are nanoseconds since this wall-clock instant
+    public void setClockOrigin(long epochMillis) {
+        stabilizer.setClockOrigin(epochMillis);
+    }
+
+    // Overlay recorded for the last processed frame, valid until the next processFrame on this
+    // instance; null when annotation is switched off
+    public FrameAnnotations getAnnotations() {
+        return annotationsEnabled ? annotations : null;
+    }
+
+    // Off for headless runs: detectors then skip building the overlay altogether
+    public void setAnnotationsEnabled(boolean enabled) {
+        this.annotationsEnabled = enabled;
+    }
+
+    public boolean isAnnotationsEnabled() {
+        return annotationsEnabled;
+    }
+
+    public String getActiveSign() {
+        return stabilizer.getActiveSign();
+    }
+
+    // Stabilized sign events before grammar processing, delivered on the processing thread
+    public void addSignEventListener(SignStabilizer.SignEventListener listener) {
+        signEventListeners.add(listener);
+    }
+
+    public void removeSignEventListener(SignStabilizer.SignEventListener listener) {
+        signEventListeners.remove(listener);
+    }
+
+    public GrammarProcessor getGrammarProcessor() {
+        return grammarProcessor;
+    }
+
+    public TemporalFusionWindow getFusionWindow() {
+        return fusionWindow;
+    }
+
+    public QualityController getQualityController() {
+        return qualityController;
+    }
+
+    public PipelineEventBus getEventBus() {
+        return eventBus;
     }
 
     public void addListener(FusionListener listener) {
-        listeners.add(listener);
+        // Each listener consumes from the event bus on its own thread, so it can't stall detection
+        listenerSubscriptions.computeIfAbsent(listener, l -> eventBus.subscribe(
+            l.getClass().getSimpleName(),
+            event -> {
+                if (event.getType() == PipelineEventBus.EventType.FUSION_RESULT) {
+                    l.onDetectionResult(event.getResult());
+                }
+            }));
     }
 
     public void removeListener(FusionListener listener) {
-        listeners.remove(listener);
+        PipelineEventBus.Subscription subscription = listenerSubscriptions.remove(listener);
+        if (subscription != null) {
+            eventBus.unsubscribe(subscription);
+        }
     }
 
-    private void notifyListeners(FusionResult result) {
+    private void notifyListeners(FusionResult result, long frameSequence) {
         if (result.getConfidence() >= CONFIDENCE_THRESHOLD) {
-            for (FusionListener listener : listeners) {
-                listener.onDetectionResult(result);
-            }
+            eventBus.publishFusionResult(frameSequence, result);
+            MetricsRegistry.getInstance()
+                .counter("lsa_detections_total", "Detections emitted per sign",
+                    "stream", streamId, "sign", result.getDetectedSign())
+                .inc();
             logger.debug("Detection result: {}", result);
         }
     }
@@ -134,10 +435,25 @@ public class FusionAI implements GestureDetector.GestureDetectionListener {
     public static class FusionResult {
         private final String detectedSign;
         private final double confidence;
+        private final long startTime;
+        private final long endTime;
+        private final int frameCount;
 
         public FusionResult(String detectedSign, double confidence) {
+            this(detectedSign, confidence, System.currentTimeMillis());
+        }
+
+        private FusionResult(String detectedSign, double confidence, long timestamp) {
+            this(detectedSign, confidence, timestamp, timestamp, 1);
+        }
+
+        // A sign held over a span of frames; confidence is the peak seen over the span
+        public FusionResult(String detectedSign, double confidence, long startTime, long endTime, int frameCount) {
             this.detectedSign = detectedSign;
             this.confidence = confidence;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.frameCount = frameCount;
         }
 
         public String getDetectedSign() {
@@ -148,21 +464,23 @@ public class FusionAI implements GestureDetector.GestureDetectionListener {
             return confidence;
         }
 
-        @Override
-        public String toString() {
-            return String.format("Sign: %s (Confidence: %.2f)", detectedSign, confidence);
+        // Epoch millis of the first and last frame of the sign
+        public long getStartTime() {
+            return startTime;
         }
-    }
 
-    private static class DetectionResult {
-        private final DetectionType type;
-        private final String value;
-        private final double confidence;
+        public long getEndTime() {
+            return endTime;
+        }
 
-        public DetectionResult(DetectionType type, String value, double confidence) {
-            this.type = type;
-            this.value = value;
-            this.confidence = confidence;
+        public int getFrameCount() {
+            return frameCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Sign: %s (Confidence: %.2f, %d ms over %d frames)",
+                detectedSign, confidence, endTime - startTime, frameCount);
         }
     }
 
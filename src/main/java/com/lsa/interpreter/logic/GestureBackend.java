@@ -0,0 +1,50 @@
+package com.lsa.interpreter.logic;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+// Finger counting strategy for one hand. The contour backend keeps the convexity-defect count that
+// GestureDetector has already computed; other backends may refine it from the image. Called from
+// the processing thread and the hand thread at once, so implementations must be thread-safe.
+public interface GestureBackend {
+    GestureBackend CONTOUR = new GestureBackend() {
+        @Override
+        public int countFingers(Mat frame, Rect handBounds, int contourFingerCount) {
+            return contourFingerCount;
+        }
+
+        @Override
+        public String getName() {
+            return "contour";
+        }
+    };
+
+    // handBounds is in frame coordinates; contourFingerCount is the defect-based estimate to fall back on
+    int countFingers(Mat frame, Rect handBounds, int contourFingerCount);
+
+    String getName();
+
+    // -Dlsa.gesture.backend=contour|dnn; dnn needs a model at -Dlsa.hand.model and falls back to contour without one
+    static GestureBackend fromProperties() {
+        Logger logger = LoggerFactory.getLogger(GestureBackend.class);
+        String backend = System.getProperty("lsa.gesture.backend", "contour").toLowerCase(Locale.ROOT);
+        if (!"dnn".equals(backend)) {
+            return CONTOUR;
+        }
+        String modelPath = System.getProperty("lsa.hand.model");
+        if (modelPath == null) {
+            logger.warn("DNN gesture backend requested but no model set (-Dlsa.hand.model); using contour backend");
+            return CONTOUR;
+        }
+        try {
+            return new DnnGestureBackend(HandLandmarkScheduler.getInstance(modelPath));
+        } catch (Exception e) {
+            logger.error("Failed to load hand-landmark model {}; using contour backend", modelPath, e);
+            return CONTOUR;
+        }
+    }
+}
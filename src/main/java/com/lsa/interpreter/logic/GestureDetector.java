@@ -1,73 +1,143 @@
 package com.lsa.interpreter.logic;
 
+import com.lsa.interpreter.util.ErrorLogger;
+import com.lsa.interpreter.util.FlightEvents;
+import com.lsa.interpreter.util.MatTracker;
 import org.opencv.core.Core;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfInt;
 import org.opencv.core.MatOfInt4;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
+import org.opencv.core.Rect;
 import org.opencv.core.Scalar;
 import org.opencv.core.Size;
 import org.opencv.imgproc.Imgproc;
+import org.opencv.imgproc.Moments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class GestureDetector {
     private static final Logger logger = LoggerFactory.getLogger(GestureDetector.class);
-    
+    private static final String DEFAULT_STREAM_ID = "default";
+    private static final String COMPONENT = "GestureDetector";
+    // A second candidate smaller than this share of the largest one is treated as noise, not a hand
+    private static final double SECOND_HAND_MIN_RATIO = 0.25;
+
+    private final String streamId;
     private final List<GestureDetectionListener> listeners;
     private final Mat skinMask;
-    private final MatOfPoint hull;
-    private final MatOfInt hullIndices;
-    private final MatOfInt4 defects;
-    private MatOfPoint tempHull;
+    private final Mat morphKernel;
+    private final BackgroundModel backgroundModel;
+    private final HandTracker handTracker;
+    // One set of analysis buffers per hand, so both hands can be analysed at the same time
+    private final HandAnalyzer[] analyzers;
+    private final ExecutorService handExecutor;
+    private final GestureBackend backend;
 
     public GestureDetector() {
-        this.listeners = new ArrayList<>();
-        this.skinMask = new Mat();
-        this.hull = new MatOfPoint();
-        this.hullIndices = new MatOfInt();
-        this.defects = new MatOfInt4();
-        this.tempHull = new MatOfPoint();
+        this(DEFAULT_STREAM_ID);
+    }
+
+    public GestureDetector(String streamId) {
+        this.streamId = streamId;
+        this.listeners = new CopyOnWriteArrayList<>();
+        MatTracker tracker = MatTracker.getInstance();
+        this.skinMask = tracker.allocateLongLived(COMPONENT);
+        this.morphKernel = tracker.trackLongLived(COMPONENT,
+            Imgproc.getStructuringElement(Imgproc.MORPH_ELLIPSE, new Size(3, 3)));
+        this.backgroundModel = new BackgroundModel();
+        this.handTracker = new HandTracker();
+        this.backend = GestureBackend.fromProperties();
+        this.analyzers = new HandAnalyzer[Hand.values().length];
+        for (Hand hand : Hand.values()) {
+            analyzers[hand.ordinal()] = new HandAnalyzer(hand);
+        }
+        // The second hand is analysed here while the processing thread does the first
+        this.handExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "gesture-hand-" + streamId);
+            thread.setDaemon(true);
+            return thread;
+        });
         
-        logger.info("GestureDetector initialized");
+        logger.info("GestureDetector initialized ({} gesture backend)", backend.getName());
     }
 
     public void processFrame(Mat frame) {
+        try (FrameContext context = new FrameContext(streamId)) {
+            processFrame(context.begin(frame, 0));
+        }
+    }
+
+    public void processFrame(FrameContext context) {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat frame = context.getFrame();
+        long frameSequence = context.getFrameSequence();
+        Mat hierarchy = null;
+        List<MatOfPoint> contours = new ArrayList<>();
         try {
-            // Convert to HSV color space for better skin detection
-            Mat hsvFrame = new Mat();
-            Imgproc.cvtColor(frame, hsvFrame, Imgproc.COLOR_BGR2HSV);
+            // HSV separates hue from lighting, which makes skin detection more robust
+            FlightEvents.DetectorStageEvent stage = beginStage();
+            detectSkin(context.hsv(), context.getQuality().isSkinMorphology());
+            commitStage(stage, frameSequence, "skin-mask");
 
-            // Detect skin color
-            detectSkin(hsvFrame);
+            // Static skin-coloured regions (furniture, walls) never become hand candidates
+            if (backgroundModel.isEnabled()) {
+                stage = beginStage();
+                backgroundModel.apply(context, skinMask);
+                commitStage(stage, frameSequence, "background");
+            }
 
             // Find contours in the skin mask
-            List<MatOfPoint> contours = new ArrayList<>();
-            Mat hierarchy = new Mat();
+            stage = beginStage();
+            hierarchy = tracker.allocate(COMPONENT);
             Imgproc.findContours(skinMask, contours, hierarchy, 
                 Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_SIMPLE);
+            commitStage(stage, frameSequence, "contours");
 
-            // Process the largest contour (assumed to be the hand)
-            if (!contours.isEmpty()) {
-                MatOfPoint largestContour = findLargestContour(contours);
-                processHandContour(largestContour, frame);
+            // Process the two largest contours (assumed to be the hands)
+            stage = beginStage();
+            List<MatOfPoint> candidates = findHandCandidates(contours);
+            Hand[] hands = trackHands(candidates, frame);
+            if (!candidates.isEmpty()) {
+                HandResult[] results = analyzeHands(candidates, hands, frame);
+                publishHands(results, context.getAnnotations());
             }
-
-            // Clean up
-            hsvFrame.release();
-            hierarchy.release();
+            commitStage(stage, frameSequence, "hand-analysis");
+        } catch (Exception e) {
+            ErrorLogger.getInstance().logError("GestureDetector", "Error processing frame in gesture detector", e);
+        } finally {
+            // Clean up, including on the error path
+            tracker.release(hierarchy);
             contours.forEach(MatOfPoint::release);
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("Error processing frame in gesture detector", e);
+    private static FlightEvents.DetectorStageEvent beginStage() {
+        FlightEvents.DetectorStageEvent event = new FlightEvents.DetectorStageEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commitStage(FlightEvents.DetectorStageEvent event, long frameSequence, String stage) {
+        if (event.shouldCommit()) {
+            event.streamId = streamId;
+            event.frameSequence = frameSequence;
+            event.detector = "gesture";
+            event.stage = stage;
+            event.commit();
         }
     }
 
-    private void detectSkin(Mat hsvFrame) {
+    private void detectSkin(Mat hsvFrame, boolean morphology) {
         // Define skin color range in HSV
         Scalar lowerBound = new Scalar(0, 20, 70);
         Scalar upperBound = new Scalar(20, 255, 255);
@@ -75,57 +145,120 @@ public class GestureDetector {
         // Create binary mask for skin color
         Core.inRange(hsvFrame, lowerBound, upperBound, skinMask);
 
-        // Apply morphological operations to clean up the mask
-        Mat kernel = Imgproc.getStructuringElement(Imgproc.MORPH_ELLIPSE, new Size(3, 3));
-        Imgproc.erode(skinMask, skinMask, kernel);
-        Imgproc.dilate(skinMask, skinMask, kernel);
-        kernel.release();
+        // Apply morphological operations to clean up the mask (skipped when over the frame budget)
+        if (morphology) {
+            Imgproc.erode(skinMask, skinMask, morphKernel);
+            Imgproc.dilate(skinMask, skinMask, morphKernel);
+        }
     }
 
-    private MatOfPoint findLargestContour(List<MatOfPoint> contours) {
-        return contours.stream()
-            .max((c1, c2) -> Double.compare(Imgproc.contourArea(c1), Imgproc.contourArea(c2)))
-            .orElse(new MatOfPoint());
-    }
+    // The largest contour and, if it is big enough to be a hand, the second largest; the results
+    // are the caller's contours, not new Mats
+    private List<MatOfPoint> findHandCandidates(List<MatOfPoint> contours) {
+        MatOfPoint largest = null;
+        MatOfPoint second = null;
+        double largestArea = -1;
+        double secondArea = -1;
+        for (MatOfPoint contour : contours) {
+            double area = Imgproc.contourArea(contour);
+            if (area > largestArea) {
+                second = largest;
+                secondArea = largestArea;
+                largest = contour;
+                largestArea = area;
+            } else if (area > secondArea) {
+                second = contour;
+                secondArea = area;
+            }
+        }
 
-    private void processHandContour(MatOfPoint contour, Mat frame) {
-        // Find convex hull
-        MatOfInt tempHullIndices = new MatOfInt();
-        Imgproc.convexHull(contour, tempHullIndices);
-        
-        // Convert indices to points
-        Point[] points = contour.toArray();
-        Point[] hullPoints = new Point[tempHullIndices.toArray().length];
-        for (int i = 0; i < tempHullIndices.toArray().length; i++) {
-            hullPoints[i] = points[tempHullIndices.toArray()[i]];
+        List<MatOfPoint> candidates = new ArrayList<>(2);
+        if (largest != null) {
+            candidates.add(largest);
         }
-        
-        // Store results
-        hull.fromArray(hullPoints);
-        hullIndices.fromArray(tempHullIndices.toArray());
-        
-        // Clean up
-        tempHullIndices.release();
+        if (second != null && secondArea >= largestArea * SECOND_HAND_MIN_RATIO) {
+            candidates.add(second);
+        }
+        return candidates;
+    }
 
-        // Find convexity defects
-        if (contour.total() > 3) {
-            Imgproc.convexityDefects(contour, hullIndices, defects);
+    private Hand[] trackHands(List<MatOfPoint> candidates, Mat frame) {
+        double[] xs = new double[candidates.size()];
+        double[] ys = new double[candidates.size()];
+        double width = Math.max(frame.cols(), 1);
+        double height = Math.max(frame.rows(), 1);
+        for (int i = 0; i < candidates.size(); i++) {
+            Rect bounds = Imgproc.boundingRect(candidates.get(i));
+            xs[i] = (bounds.x + bounds.width / 2.0) / width;
+            ys[i] = (bounds.y + bounds.height / 2.0) / height;
+        }
+        return handTracker.assign(xs, ys, candidates.size());
+    }
 
-            // Count fingers based on defects
-            int fingerCount = countFingers(defects, contour);
+    private HandResult[] analyzeHands(List<MatOfPoint> candidates, Hand[] hands, Mat frame) throws Exception {
+        HandResult[] results = new HandResult[Hand.values().length];
+        Future<HandResult> second = null;
+        if (candidates.size() > 1) {
+            MatOfPoint contour = candidates.get(1);
+            HandAnalyzer analyzer = analyzers[hands[1].ordinal()];
+            second = handExecutor.submit(() -> analyzer.analyze(contour, frame));
+        }
+        try {
+            results[hands[0].ordinal()] = analyzers[hands[0].ordinal()].analyze(candidates.get(0), frame);
+        } catch (Throwable t) {
+            if (second != null) {
+                try {
+                    awaitHand(second);
+                } catch (Exception e) {
+                    t.addSuppressed(e);
+                }
+            }
+            throw t;
+        }
+        if (second != null) {
+            results[hands[1].ordinal()] = awaitHand(second);
+        }
+        return results;
+    }
 
-            // Draw results
-            drawResults(frame, contour, hull, defects);
+    // Waits even when interrupted: the hand thread reads the contour, the frame and its analyzer's
+    // buffers, which the caller frees or reuses as soon as this returns
+    private static HandResult awaitHand(Future<HandResult> future) throws Exception {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
-            // Notify listeners
-            notifyGestureDetected(fingerCount);
+    // Annotates and notifies on the processing thread, left hand first
+    private void publishHands(HandResult[] results, FrameAnnotations annotations) {
+        for (HandResult result : results) {
+            if (result == null) {
+                continue;
+            }
+            // Record the overlay; the frame itself is never drawn into
+            if (annotations != null) {
+                annotate(annotations, result);
+            }
+            notifyHandObserved(result.observation);
+            notifyGestureDetected(result.observation.getHand(), result.observation.getFingerCount());
         }
     }
 
-    private int countFingers(MatOfInt4 defects, MatOfPoint contour) {
+    private static int countFingers(int[] defectArray, Point[] contourPoints) {
         int fingerCount = 1; // Start with 1 for the thumb
-        Point[] contourPoints = contour.toArray();
-        int[] defectArray = defects.toArray();
 
         for (int i = 0; i < defectArray.length; i += 4) {
             Point start = contourPoints[defectArray[i]];
@@ -142,7 +275,7 @@ public class GestureDetector {
         return Math.min(fingerCount, 5); // Cap at 5 fingers
     }
 
-    private boolean isValidFinger(Point start, Point end, Point far) {
+    private static boolean isValidFinger(Point start, Point end, Point far) {
         double a = Math.sqrt(Math.pow(end.x - start.x, 2) + Math.pow(end.y - start.y, 2));
         double b = Math.sqrt(Math.pow(far.x - start.x, 2) + Math.pow(far.y - start.y, 2));
         double c = Math.sqrt(Math.pow(end.x - far.x, 2) + Math.pow(end.y - far.y, 2));
@@ -153,20 +286,163 @@ public class GestureDetector {
         return angle <= 90; // Consider as finger if angle is less than 90 degrees
     }
 
-    private void drawResults(Mat frame, MatOfPoint contour, MatOfPoint hull, MatOfInt4 defects) {
-        // Draw contour
-        Imgproc.drawContours(frame, List.of(contour), -1, new Scalar(0, 255, 0), 2);
-        
-        // Draw hull
-        Imgproc.drawContours(frame, List.of(hull), -1, new Scalar(255, 0, 0), 2);
-        
-        // Draw defect points
-        Point[] contourPoints = contour.toArray();
-        int[] defectArray = defects.toArray();
-        
+    private static double defectAngle(Point start, Point end, Point far) {
+        double a = Math.hypot(end.x - start.x, end.y - start.y);
+        double b = Math.hypot(far.x - start.x, far.y - start.y);
+        double c = Math.hypot(end.x - far.x, end.y - far.y);
+        if (b == 0 || c == 0) {
+            return 0.0;
+        }
+        double cosine = Math.max(-1.0, Math.min(1.0, (b * b + c * c - a * a) / (2 * b * c)));
+        return Math.acos(cosine) * 180 / Math.PI;
+    }
+
+    private static void annotate(FrameAnnotations annotations, HandResult result) {
+        annotations.polyline(result.contourPoints, true, FrameAnnotations.Style.HAND_CONTOUR);
+        annotations.polyline(result.hullPoints, true, FrameAnnotations.Style.HAND_HULL);
+
+        // Defect points
+        int[] defectArray = result.defects;
         for (int i = 0; i < defectArray.length; i += 4) {
-            Point far = contourPoints[defectArray[i + 2]];
-            Imgproc.circle(frame, far, 4, new Scalar(0, 0, 255), -1);
+            annotations.point(result.contourPoints[defectArray[i + 2]], 4, FrameAnnotations.Style.CONVEXITY_DEFECT);
+        }
+    }
+
+    public BackgroundModel getBackgroundModel() {
+        return backgroundModel;
+    }
+
+    public HandTracker getHandTracker() {
+        return handTracker;
+    }
+
+    // Stops the hand thread and frees the detector's buffers; the detector is unusable afterwards
+    public void close() {
+        handExecutor.shutdown();
+        MatTracker tracker = MatTracker.getInstance();
+        tracker.release(skinMask);
+        tracker.release(morphKernel);
+        for (HandAnalyzer analyzer : analyzers) {
+            analyzer.release();
+        }
+        backgroundModel.close();
+    }
+
+    // Hull, defect and shape analysis of one hand. Runs on either the processing thread or the
+    // hand thread, but never on both at once, and only touches its own buffers.
+    private final class HandAnalyzer {
+        private final Hand hand;
+        private final MatOfPoint hull;
+        private final MatOfInt hullIndices;
+        private final MatOfInt4 defects;
+        private final Mat hu;
+
+        private HandAnalyzer(Hand hand) {
+            this.hand = hand;
+            MatTracker tracker = MatTracker.getInstance();
+            this.hull = tracker.trackLongLived(COMPONENT, new MatOfPoint());
+            this.hullIndices = tracker.trackLongLived(COMPONENT, new MatOfInt());
+            this.defects = tracker.trackLongLived(COMPONENT, new MatOfInt4());
+            this.hu = tracker.allocateLongLived(COMPONENT);
+        }
+
+        private void release() {
+            MatTracker tracker = MatTracker.getInstance();
+            tracker.release(hull);
+            tracker.release(hullIndices);
+            tracker.release(defects);
+            tracker.release(hu);
+        }
+
+        // Null when the contour is too small to have convexity defects
+        private HandResult analyze(MatOfPoint contour, Mat frame) {
+            // Find convex hull
+            Imgproc.convexHull(contour, hullIndices);
+
+            // Convert indices to points
+            Point[] points = contour.toArray();
+            int[] indices = hullIndices.toArray();
+            Point[] hullPoints = new Point[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                hullPoints[i] = points[indices[i]];
+            }
+            hull.fromArray(hullPoints);
+
+            if (contour.total() <= 3) {
+                return null;
+            }
+
+            // Find convexity defects and count fingers based on them
+            Imgproc.convexityDefects(contour, hullIndices, defects);
+            int[] defectArray = defects.toArray();
+            int fingerCount = backend.countFingers(frame, Imgproc.boundingRect(contour), countFingers(defectArray, points));
+            return new HandResult(points, hullPoints, defectArray,
+                buildObservation(contour, points, defectArray, frame, fingerCount));
+        }
+
+        private HandObservation buildObservation(MatOfPoint contour, Point[] contourPoints, int[] defectArray,
+                                                 Mat frame, int fingerCount) {
+            // Shape descriptors (Hu moments are scale and rotation invariant)
+            Moments moments = Imgproc.moments(contour);
+            Imgproc.HuMoments(moments, hu);
+            double[] huMoments = new double[7];
+            hu.get(0, 0, huMoments);
+
+            double area = Math.max(moments.m00, 1.0);
+            double handScale = Math.sqrt(area);
+            double hullArea = Math.max(Imgproc.contourArea(hull), 1.0);
+            Rect bounds = Imgproc.boundingRect(contour);
+
+            // Defect geometry, normalized by hand size
+            int defectCount = 0;
+            double depthSum = 0;
+            double maxDepth = 0;
+            double angleSum = 0;
+
+            for (int i = 0; i < defectArray.length; i += 4) {
+                double depth = defectArray[i + 3] / 256.0;
+                if (depth <= 10) {
+                    continue;
+                }
+                Point start = contourPoints[defectArray[i]];
+                Point end = contourPoints[defectArray[i + 1]];
+                Point far = contourPoints[defectArray[i + 2]];
+
+                defectCount++;
+                depthSum += depth;
+                maxDepth = Math.max(maxDepth, depth);
+                angleSum += defectAngle(start, end, far);
+            }
+
+            double frameArea = Math.max((double) frame.cols() * frame.rows(), 1.0);
+            return new HandObservation(
+                hand,
+                huMoments,
+                fingerCount,
+                defectCount,
+                defectCount > 0 ? depthSum / defectCount / handScale : 0.0,
+                maxDepth / handScale,
+                defectCount > 0 ? angleSum / defectCount : 0.0,
+                moments.m00 / hullArea,
+                bounds.height > 0 ? (double) bounds.width / bounds.height : 0.0,
+                moments.m00 / frameArea,
+                frame.cols() > 0 ? moments.m10 / area / frame.cols() : 0.0,
+                frame.rows() > 0 ? moments.m01 / area / frame.rows() : 0.0
+            );
+        }
+    }
+
+    private static final class HandResult {
+        private final Point[] contourPoints;
+        private final Point[] hullPoints;
+        private final int[] defects;
+        private final HandObservation observation;
+
+        private HandResult(Point[] contourPoints, Point[] hullPoints, int[] defects, HandObservation observation) {
+            this.contourPoints = contourPoints;
+            this.hullPoints = hullPoints;
+            this.defects = defects;
+            this.observation = observation;
         }
     }
 
@@ -178,13 +454,117 @@ public class GestureDetector {
         listeners.remove(listener);
     }
 
-    private void notifyGestureDetected(int fingerCount) {
+    private void notifyGestureDetected(Hand hand, int fingerCount) {
         for (GestureDetectionListener listener : listeners) {
-            listener.onGestureDetected(fingerCount);
+            listener.onGestureDetected(hand, fingerCount);
         }
     }
 
+    private void notifyHandObserved(HandObservation observation) {
+        for (GestureDetectionListener listener : listeners) {
+            listener.onHandObserved(observation);
+        }
+    }
+
+    // Side of the image the hand is on when first seen; kept while the hand is tracked
+    public enum Hand {
+        LEFT,
+        RIGHT
+    }
+
+    // Called on the processing thread once per detected hand and frame, left hand first
     public interface GestureDetectionListener {
-        void onGestureDetected(int fingerCount);
+        void onGestureDetected(Hand hand, int fingerCount);
+
+        default void onHandObserved(HandObservation observation) {
+            // Optional: only listeners that need hand geometry override this
+        }
+    }
+
+    public static class HandObservation {
+        private final Hand hand;
+        private final double[] huMoments;
+        private final int fingerCount;
+        private final int defectCount;
+        private final double meanDefectDepth;
+        private final double maxDefectDepth;
+        private final double meanDefectAngle;
+        private final double solidity;
+        private final double aspectRatio;
+        private final double relativeArea;
+        private final double centroidX;
+        private final double centroidY;
+        private final long timestamp;
+
+        public HandObservation(Hand hand, double[] huMoments, int fingerCount, int defectCount,
+                               double meanDefectDepth, double maxDefectDepth, double meanDefectAngle,
+                               double solidity, double aspectRatio, double relativeArea,
+                               double centroidX, double centroidY) {
+            this.hand = hand;
+            this.huMoments = huMoments;
+            this.fingerCount = fingerCount;
+            this.defectCount = defectCount;
+            this.meanDefectDepth = meanDefectDepth;
+            this.maxDefectDepth = maxDefectDepth;
+            this.meanDefectAngle = meanDefectAngle;
+            this.solidity = solidity;
+            this.aspectRatio = aspectRatio;
+            this.relativeArea = relativeArea;
+            this.centroidX = centroidX;
+            this.centroidY = centroidY;
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        public Hand getHand() {
+            return hand;
+        }
+
+        public double[] getHuMoments() {
+            return huMoments;
+        }
+
+        public int getFingerCount() {
+            return fingerCount;
+        }
+
+        public int getDefectCount() {
+            return defectCount;
+        }
+
+        public double getMeanDefectDepth() {
+            return meanDefectDepth;
+        }
+
+        public double getMaxDefectDepth() {
+            return maxDefectDepth;
+        }
+
+        public double getMeanDefectAngle() {
+            return meanDefectAngle;
+        }
+
+        public double getSolidity() {
+            return solidity;
+        }
+
+        public double getAspectRatio() {
+            return aspectRatio;
+        }
+
+        public double getRelativeArea() {
+            return relativeArea;
+        }
+
+        public double getCentroidX() {
+            return centroidX;
+        }
+
+        public double getCentroidY() {
+            return centroidY;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
     }
 }
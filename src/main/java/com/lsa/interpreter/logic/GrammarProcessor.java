@@ -1,10 +1,12 @@
 package com.lsa.interpreter.logic;
 
+import com.lsa.interpreter.util.ErrorLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class GrammarProcessor {
     private static final Logger logger = LoggerFactory.getLogger(GrammarProcessor.class);
@@ -17,7 +19,7 @@ public class GrammarProcessor {
 
     public GrammarProcessor() {
         this.wordHistory = new ConcurrentLinkedQueue<>();
-        this.listeners = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
         this.grammarRules = initializeGrammarRules();
 
         logger.info("GrammarProcessor initialized successfully");
@@ -36,7 +38,10 @@ public class GrammarProcessor {
             // Create processed result
             FusionAI.FusionResult processedResult = new FusionAI.FusionResult(
                 processedSign,
-                adjustedConfidence
+                adjustedConfidence,
+                result.getStartTime(),
+                result.getEndTime(),
+                result.getFrameCount()
             );
 
             // Notify listeners
@@ -44,7 +49,7 @@ public class GrammarProcessor {
 
             return processedResult;
         } catch (Exception e) {
-            logger.error("Error processing result", e);
+            ErrorLogger.getInstance().logError("GrammarProcessor", "Error processing result", e);
             return result; // Return original result if processing fails
         }
     }
@@ -149,6 +154,11 @@ public class GrammarProcessor {
                (isInCategory(first, "VERB") && isInCategory(second, "OBJECT"));
     }
 
+    // Forgets the sentence context, e.g. after warm-up or between unrelated recordings
+    public void clearHistory() {
+        wordHistory.clear();
+    }
+
     public void addListener(ProcessingListener listener) {
         listeners.add(listener);
     }
@@ -0,0 +1,184 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.ErrorLogger;
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsRegistry;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.dnn.Dnn;
+import org.opencv.dnn.Net;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Runs the hand-landmark model for every stream on one thread, batching hand crops from all
+// streams into a single forward pass. A batch is sent when it is full or when the oldest crop has
+// waited for the batch window, so with several active streams the per-inference overhead is paid
+// once per batch rather than once per hand. Crops whose caller has already given up (deadline
+// passed) are dropped before inference.
+//
+// The model is an ONNX file taking NCHW float RGB input in [0, 1] at inputSize x inputSize with a
+// dynamic batch dimension, and producing 21 (x, y, z) landmarks per image in MediaPipe order.
+public class HandLandmarkScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(HandLandmarkScheduler.class);
+    private static final String COMPONENT = "HandLandmarkScheduler";
+    private static final int DEFAULT_INPUT_SIZE = 224;
+    private static final int DEFAULT_MAX_BATCH = 8;
+    private static final long DEFAULT_BATCH_WINDOW_MS = 5;
+    public static final int LANDMARK_COUNT = 21;
+
+    private static volatile HandLandmarkScheduler instance;
+
+    private final Net net;
+    private final int inputSize;
+    private final int maxBatch;
+    private final long batchWindowNanos;
+    private final LinkedBlockingQueue<Request> queue;
+    private final MetricsRegistry.LatencyHistogram batchLatency;
+    private final MetricsRegistry.Counter batchedCrops;
+    private final MetricsRegistry.Counter droppedCrops;
+
+    private HandLandmarkScheduler(String modelPath) {
+        this.net = Dnn.readNetFromONNX(modelPath);
+        net.setPreferableBackend(Dnn.DNN_BACKEND_OPENCV);
+        net.setPreferableTarget(Dnn.DNN_TARGET_CPU);
+        this.inputSize = Integer.getInteger("lsa.hand.model.input", DEFAULT_INPUT_SIZE);
+        this.maxBatch = Integer.getInteger("lsa.hand.model.batch", DEFAULT_MAX_BATCH);
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("lsa.hand.model.batch.window.ms", DEFAULT_BATCH_WINDOW_MS));
+        this.queue = new LinkedBlockingQueue<>();
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.batchLatency = metrics.latency("lsa_hand_model_batch_seconds", "Hand-landmark model forward pass per batch");
+        this.batchedCrops = metrics.counter("lsa_hand_model_crops_total", "Hand crops run through the landmark model");
+        this.droppedCrops = metrics.counter("lsa_hand_model_dropped_total", "Hand crops dropped because their deadline passed");
+
+        Thread worker = new Thread(this::run, "hand-landmarks");
+        worker.setDaemon(true);
+        worker.start();
+        logger.info("Hand-landmark model loaded from {} (input {}px, batches of up to {})", modelPath, inputSize, maxBatch);
+    }
+
+    // Loads the model on first use; every stream shares the one scheduler
+    public static HandLandmarkScheduler getInstance(String modelPath) {
+        HandLandmarkScheduler scheduler = instance;
+        if (scheduler == null) {
+            synchronized (HandLandmarkScheduler.class) {
+                scheduler = instance;
+                if (scheduler == null) {
+                    scheduler = new HandLandmarkScheduler(modelPath);
+                    instance = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    // crop is inputSize x inputSize BGR and is owned (and released) by the scheduler from here on.
+    // The future completes with LANDMARK_COUNT * 3 floats, or is cancelled if the deadline passes.
+    public CompletableFuture<float[]> submit(Mat crop, long deadlineNanos) {
+        Request request = new Request(crop, deadlineNanos);
+        queue.add(request);
+        return request.result;
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Request first = queue.take();
+                batch.add(first);
+                // Keep collecting until the batch is full or the first crop has waited long enough
+                long flushAt = Math.min(first.enqueuedNanos + batchWindowNanos, first.deadlineNanos);
+                while (batch.size() < maxBatch) {
+                    long wait = flushAt - System.nanoTime();
+                    Request next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                infer(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                ErrorLogger.getInstance().logError("HandLandmarkScheduler", "Hand-landmark batch failed", e);
+                batch.forEach(request -> request.result.completeExceptionally(e));
+            } finally {
+                MatTracker tracker = MatTracker.getInstance();
+                batch.forEach(request -> tracker.release(request.crop));
+                batch.clear();
+            }
+        }
+    }
+
+    private void infer(List<Request> batch) {
+        long now = System.nanoTime();
+        List<Mat> crops = new ArrayList<>(batch.size());
+        List<Request> live = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            if (request.result.isDone() || now > request.deadlineNanos) {
+                droppedCrops.inc();
+                request.result.cancel(false);
+            } else {
+                crops.add(request.crop);
+                live.add(request);
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+
+        MatTracker tracker = MatTracker.getInstance();
+        Mat blob = null;
+        Mat output = null;
+        long start = System.nanoTime();
+        try {
+            blob = tracker.track(COMPONENT, Dnn.blobFromImages(crops, 1.0 / 255, new Size(inputSize, inputSize),
+                new Scalar(0, 0, 0), true, false));
+            net.setInput(blob);
+            output = tracker.track(COMPONENT, net.forward());
+            int values = LANDMARK_COUNT * 3;
+            float[] all = new float[(int) output.total()];
+            output.reshape(1, 1).get(0, 0, all);
+            if (all.length < live.size() * values) {
+                throw new IllegalStateException("Hand-landmark model returned " + all.length
+                    + " values for " + live.size() + " crops, expected at least " + values + " each");
+            }
+            int stride = all.length / live.size();
+            for (int i = 0; i < live.size(); i++) {
+                float[] landmarks = new float[values];
+                System.arraycopy(all, i * stride, landmarks, 0, values);
+                live.get(i).result.complete(landmarks);
+            }
+            batchedCrops.add(live.size());
+        } finally {
+            batchLatency.record(System.nanoTime() - start);
+            tracker.release(blob);
+            tracker.release(output);
+        }
+    }
+
+    private static final class Request {
+        private final Mat crop;
+        private final long deadlineNanos;
+        private final long enqueuedNanos;
+        private final CompletableFuture<float[]> result;
+
+        private Request(Mat crop, long deadlineNanos) {
+            this.crop = crop;
+            this.deadlineNanos = deadlineNanos;
+            this.enqueuedNanos = System.nanoTime();
+            this.result = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.lsa.interpreter.logic;
+
+// Keeps left/right identity of up to two hands from frame to frame. Candidates are matched to the
+// hands seen on recent frames by centroid distance, so hands that cross or briefly disappear keep
+// their label; a hand with no recent track is labelled by which side of the frame it is on.
+// Positions are normalized to the frame size. Not thread-safe: one tracker per gesture detector.
+public class HandTracker {
+    private static final int MAX_MISSED_FRAMES = 10;
+    // Further than this from its last position, a candidate is treated as a new hand
+    private static final double MAX_JUMP = 0.35;
+
+    private final double[] lastX;
+    private final double[] lastY;
+    private final int[] missedFrames;
+
+    public HandTracker() {
+        int hands = GestureDetector.Hand.values().length;
+        this.lastX = new double[hands];
+        this.lastY = new double[hands];
+        this.missedFrames = new int[hands];
+        reset();
+    }
+
+    // Labels count candidates (at most two) given their normalized centroids; labels are distinct
+    public GestureDetector.Hand[] assign(double[] xs, double[] ys, int count) {
+        if (count > 2) {
+            throw new IllegalArgumentException("At most two hands can be tracked, got " + count);
+        }
+        GestureDetector.Hand[] hands = new GestureDetector.Hand[count];
+        int left = GestureDetector.Hand.LEFT.ordinal();
+        int right = GestureDetector.Hand.RIGHT.ordinal();
+
+        if (count == 1) {
+            hands[0] = nearestTrack(xs[0], ys[0]);
+        } else if (count == 2) {
+            boolean leftActive = isActive(left);
+            boolean rightActive = isActive(right);
+            boolean firstIsLeft;
+            if (leftActive && rightActive) {
+                double straight = distance(left, xs[0], ys[0]) + distance(right, xs[1], ys[1]);
+                double swapped = distance(left, xs[1], ys[1]) + distance(right, xs[0], ys[0]);
+                firstIsLeft = straight <= swapped;
+            } else if (leftActive || rightActive) {
+                // The tracked hand takes the nearer candidate, the other one is the new hand
+                int tracked = leftActive ? left : right;
+                boolean firstNearer = distance(tracked, xs[0], ys[0]) <= distance(tracked, xs[1], ys[1]);
+                firstIsLeft = firstNearer == leftActive;
+            } else {
+                firstIsLeft = xs[0] <= xs[1];
+            }
+            hands[0] = firstIsLeft ? GestureDetector.Hand.LEFT : GestureDetector.Hand.RIGHT;
+            hands[1] = firstIsLeft ? GestureDetector.Hand.RIGHT : GestureDetector.Hand.LEFT;
+        }
+
+        for (int i = 0; i < missedFrames.length; i++) {
+            missedFrames[i] = Math.min(missedFrames[i] + 1, MAX_MISSED_FRAMES);
+        }
+        for (int i = 0; i < count; i++) {
+            int index = hands[i].ordinal();
+            lastX[index] = xs[i];
+            lastY[index] = ys[i];
+            missedFrames[index] = 0;
+        }
+        return hands;
+    }
+
+    private GestureDetector.Hand nearestTrack(double x, double y) {
+        GestureDetector.Hand best = null;
+        double bestDistance = MAX_JUMP;
+        for (GestureDetector.Hand hand : GestureDetector.Hand.values()) {
+            if (isActive(hand.ordinal())) {
+                double d = distance(hand.ordinal(), x, y);
+                if (d < bestDistance) {
+                    best = hand;
+                    bestDistance = d;
+                }
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return x < 0.5 ? GestureDetector.Hand.LEFT : GestureDetector.Hand.RIGHT;
+    }
+
+    private boolean isActive(int index) {
+        return missedFrames[index] < MAX_MISSED_FRAMES;
+    }
+
+    private double distance(int index, double x, double y) {
+        return Math.hypot(lastX[index] - x, lastY[index] - y);
+    }
+
+    public void reset() {
+        for (int i = 0; i < missedFrames.length; i++) {
+            missedFrames[i] = MAX_MISSED_FRAMES;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.lsa.interpreter.logic;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lsa.interpreter.util.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Streams interpreted signs and sentences to local processes (captioning, TTS) over a loopback TCP
+// or Unix-domain socket. A single selector thread wakes once per pulse, encodes everything queued
+// since the last pulse once per wire format and writes it to every client without blocking. Each
+// client has a bounded output buffer; a client that can't keep up is disconnected so it never
+// holds back detection or the other clients.
+//
+// Wire format (default, big-endian): int length of the rest of the frame, byte message type, then
+//   SIGN:     long start, long end, float confidence, short frames, short n, n bytes UTF-8 sign
+//   SENTENCE: long start, long end, short words, int n, n bytes UTF-8 text
+// A client that sends the byte 'J' is switched to newline-delimited JSON instead.
+public class OutputServer implements FusionAI.FusionListener {
+    private static final Logger logger = LoggerFactory.getLogger(OutputServer.class);
+    private static final int DEFAULT_PORT = 9465;
+    private static final long PULSE_MS = 50;
+    private static final long SENTENCE_GAP_MS = 1500;
+    private static final int CLIENT_BUFFER_SIZE = 64 * 1024;
+    private static final byte TYPE_SIGN = 1;
+    private static final byte TYPE_SENTENCE = 2;
+    private static final byte FORMAT_JSON = 'J';
+    private static final byte FORMAT_BINARY = 'B';
+
+    private final SocketAddress address;
+    private final Queue<FusionAI.FusionResult> pending;
+    private final List<Client> clients;
+    private final JsonFactory jsonFactory;
+    private final MetricsRegistry.Counter slowDisconnects;
+    private final MetricsRegistry.Counter messagesSent;
+    private final List<FusionAI.FusionResult> sentence;
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+
+    public OutputServer() {
+        this(defaultAddress());
+    }
+
+    public OutputServer(SocketAddress address) {
+        this.address = address;
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.clients = new CopyOnWriteArrayList<>();
+        this.jsonFactory = new JsonFactory();
+        this.sentence = new ArrayList<>();
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.slowDisconnects = metrics.counter("lsa_output_slow_disconnects_total",
+            "Output clients disconnected for not keeping up");
+        this.messagesSent = metrics.counter("lsa_output_messages_total", "Messages queued to output clients");
+        metrics.gauge("lsa_output_clients", "Connected output clients", this::getClientCount);
+    }
+
+    // -Dlsa.output.socket=/path selects a Unix-domain socket, otherwise loopback TCP on -Dlsa.output.port
+    private static SocketAddress defaultAddress() {
+        String socketPath = System.getProperty("lsa.output.socket");
+        if (socketPath != null && !socketPath.isEmpty()) {
+            return UnixDomainSocketAddress.of(socketPath);
+        }
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.getInteger("lsa.output.port", DEFAULT_PORT));
+    }
+
+    public void start() {
+        try {
+            selector = Selector.open();
+            if (address instanceof UnixDomainSocketAddress) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+                serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            } else {
+                serverChannel = ServerSocketChannel.open();
+            }
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+            running = true;
+            thread = new Thread(this::run, "output-server");
+            thread.setDaemon(true);
+            thread.start();
+            logger.info("Output server listening on {}", address);
+        } catch (IOException e) {
+            logger.error("Failed to start output server on {}", address, e);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void onDetectionResult(FusionAI.FusionResult result) {
+        // Called on an event-bus subscriber thread; the selector thread picks it up on its next pulse
+        if (running) {
+            pending.offer(result);
+        }
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select(PULSE_MS);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Client client = (Client) key.attachment();
+                        if (key.isReadable()) {
+                            read(client);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(client);
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+                pulse();
+            }
+        } catch (IOException e) {
+            logger.error("Output server failed", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            Client client = new Client(channel);
+            client.key = channel.register(selector, SelectionKey.OP_READ, client);
+            clients.add(client);
+            logger.info("Output client connected: {}", client.name);
+        }
+    }
+
+    private void read(Client client) {
+        ByteBuffer in = ByteBuffer.allocate(64);
+        try {
+            int read = client.channel.read(in);
+            if (read < 0) {
+                disconnect(client, "closed by peer");
+                return;
+            }
+            // Only format switches are accepted from clients; anything else is ignored
+            for (int i = 0; i < in.position(); i++) {
+                if (in.get(i) == FORMAT_JSON) {
+                    client.json = true;
+                } else if (in.get(i) == FORMAT_BINARY) {
+                    client.json = false;
+                }
+            }
+        } catch (IOException e) {
+            disconnect(client, e.getMessage());
+        }
+    }
+
+    private void pulse() throws IOException {
+        List<byte[][]> messages = new ArrayList<>();
+        FusionAI.FusionResult result;
+        long now = System.currentTimeMillis();
+        while ((result = pending.poll()) != null) {
+            // A long enough pause between signs closes the sentence in progress
+            if (!sentence.isEmpty() && result.getStartTime() - lastSentenceEnd() > SENTENCE_GAP_MS) {
+                messages.add(encodeSentence());
+            }
+            sentence.add(result);
+            messages.add(encodeSign(result));
+        }
+        if (!sentence.isEmpty() && now - lastSentenceEnd() > SENTENCE_GAP_MS) {
+            messages.add(encodeSentence());
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        for (Client client : clients) {
+            int format = client.json ? 1 : 0;
+            for (byte[][] message : messages) {
+                byte[] bytes = message[format];
+                if (client.out.remaining() < bytes.length) {
+                    // Hand what we have to the socket before deciding the client is behind
+                    write(client);
+                    if (!client.channel.isOpen()) {
+                        break;
+                    }
+                }
+                if (client.out.remaining() < bytes.length) {
+                    slowDisconnects.inc();
+                    disconnect(client, "output buffer full, client too slow");
+                    break;
+                }
+                client.out.put(bytes);
+                messagesSent.inc();
+            }
+            if (client.channel.isOpen() && client.out.position() > 0) {
+                write(client);
+            }
+        }
+    }
+
+    private void write(Client client) {
+        try {
+            client.out.flip();
+            client.channel.write(client.out);
+            client.out.compact();
+            // Only ask for writability while something is left over
+            int interest = client.out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            client.key.interestOps(interest);
+        } catch (IOException e) {
+            disconnect(client, e.getMessage());
+        }
+    }
+
+    private long lastSentenceEnd() {
+        return sentence.get(sentence.size() - 1).getEndTime();
+    }
+
+    private byte[][] encodeSign(FusionAI.FusionResult result) throws IOException {
+        byte[] sign = result.getDetectedSign().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer binary = ByteBuffer.allocate(4 + 1 + 8 + 8 + 4 + 2 + 2 + sign.length);
+        binary.putInt(binary.capacity() - 4)
+            .put(TYPE_SIGN)
+            .putLong(result.getStartTime())
+            .putLong(result.getEndTime())
+            .putFloat((float) result.getConfidence())
+            .putShort((short) Math.min(result.getFrameCount(), Short.MAX_VALUE))
+            .putShort((short) sign.length)
+            .put(sign);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "sign");
+            generator.writeStringField("sign", result.getDetectedSign());
+            generator.writeNumberField("start", result.getStartTime());
+            generator.writeNumberField("end", result.getEndTime());
+            generator.writeNumberField("confidence", result.getConfidence());
+            generator.writeNumberField("frames", result.getFrameCount());
+            generator.writeEndObject();
+        }
+        json.write('\n');
+        return new byte[][] {binary.array(), json.toByteArray()};
+    }
+
+    private byte[][] encodeSentence() throws IOException {
+        StringJoiner joiner = new StringJoiner(" ");
+        for (FusionAI.FusionResult word : sentence) {
+            joiner.add(word.getDetectedSign());
+        }
+        String text = joiner.toString();
+        long start = sentence.get(0).getStartTime();
+        long end = lastSentenceEnd();
+        int words = sentence.size();
+        sentence.clear();
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer binary = ByteBuffer.allocate(4 + 1 + 8 + 8 + 2 + 4 + bytes.length);
+        binary.putInt(binary.capacity() - 4)
+            .put(TYPE_SENTENCE)
+            .putLong(start)
+            .putLong(end)
+            .putShort((short) Math.min(words, Short.MAX_VALUE))
+            .putInt(bytes.length)
+            .put(bytes);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "sentence");
+            generator.writeStringField("text", text);
+            generator.writeNumberField("start", start);
+            generator.writeNumberField("end", end);
+            generator.writeNumberField("words", words);
+            generator.writeEndObject();
+        }
+        json.write('\n');
+        return new byte[][] {binary.array(), json.toByteArray()};
+    }
+
+    private void disconnect(Client client, String reason) {
+        clients.remove(client);
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing output client {}", client.name, e);
+        }
+        logger.info("Output client {} disconnected: {}", client.name, reason);
+    }
+
+    private void closeAll() {
+        for (Client client : clients) {
+            disconnect(client, "server stopping");
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+            if (address instanceof UnixDomainSocketAddress) {
+                Path path = ((UnixDomainSocketAddress) address).getPath();
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Error closing output server", e);
+        }
+        logger.info("Output server stopped");
+    }
+
+    private static final class Client {
+        private final SocketChannel channel;
+        private final ByteBuffer out;
+        private final String name;
+        private SelectionKey key;
+        private boolean json;
+
+        private Client(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.out = ByteBuffer.allocate(CLIENT_BUFFER_SIZE);
+            SocketAddress remote = channel.getRemoteAddress();
+            this.name = remote != null && !remote.toString().isEmpty() ? remote.toString() : "unix-" + channel.hashCode();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.FlightEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class PipelineEventBus {
+    private static final Logger logger = LoggerFactory.getLogger(PipelineEventBus.class);
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final String DEFAULT_STREAM_ID = "default";
+    private static final long SLOW_CONSUMER_REPORT_INTERVAL_MS = 1000;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+
+    private final String streamId;
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong nextSequence;
+    private final List<Subscription> subscriptions;
+    private final List<SlowConsumerListener> slowConsumerListeners;
+
+    public PipelineEventBus() {
+        this(DEFAULT_STREAM_ID, DEFAULT_CAPACITY);
+    }
+
+    public PipelineEventBus(String streamId) {
+        this(streamId, DEFAULT_CAPACITY);
+    }
+
+    public PipelineEventBus(String streamId, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.streamId = streamId;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.nextSequence = new AtomicLong();
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.slowConsumerListeners = new CopyOnWriteArrayList<>();
+
+        logger.info("PipelineEventBus initialized with {} slots", capacity);
+    }
+
+    public void publishGesture(long frameSequence, int fingerCount) {
+        publish(EventType.GESTURE, frameSequence, fingerCount, null, 0.0, null);
+    }
+
+    public void publishFacialExpression(long frameSequence, String expression, double confidence) {
+        publish(EventType.FACIAL_EXPRESSION, frameSequence, 0, expression, confidence, null);
+    }
+
+    public void publishFusionResult(long frameSequence, FusionAI.FusionResult result) {
+        publish(EventType.FUSION_RESULT, frameSequence, 0, null, result.getConfidence(), result);
+    }
+
+    public void publishProcessedResult(long frameSequence, FusionAI.FusionResult result) {
+        publish(EventType.PROCESSED_RESULT, frameSequence, 0, null, result.getConfidence(), result);
+    }
+
+    private void publish(EventType type, long frameSequence, int intValue, String stringValue, double doubleValue,
+                         FusionAI.FusionResult result) {
+        // Claim a slot; the ring overwrites old events instead of waiting for slow consumers
+        long sequence = nextSequence.getAndIncrement();
+        Slot slot = slots[(int) (sequence & mask)];
+
+        slot.version = -(sequence + 1);
+        VarHandle.storeStoreFence();
+        slot.type = type;
+        slot.frameSequence = frameSequence;
+        slot.timestamp = System.nanoTime();
+        slot.intValue = intValue;
+        slot.stringValue = stringValue;
+        slot.doubleValue = doubleValue;
+        slot.result = result;
+        slot.version = sequence;
+
+        // Wake parked consumers without ever blocking the publisher
+        for (Subscription subscription : subscriptions) {
+            if (subscription.parked) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    public Subscription subscribe(String name, EventHandler handler) {
+        return subscribe(name, handler, WaitStrategy.BLOCKING);
+    }
+
+    public Subscription subscribe(String name, EventHandler handler, WaitStrategy waitStrategy) {
+        Subscription subscription = new Subscription(name, handler, waitStrategy, nextSequence.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        logger.info("Subscriber '{}' registered with {} wait strategy", name, waitStrategy);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.running = false;
+            LockSupport.unpark(subscription.thread);
+            logger.info("Subscriber '{}' removed", subscription.name);
+        }
+    }
+
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            unsubscribe(subscription);
+        }
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    public void addSlowConsumerListener(SlowConsumerListener listener) {
+        slowConsumerListeners.add(listener);
+    }
+
+    public void removeSlowConsumerListener(SlowConsumerListener listener) {
+        slowConsumerListeners.remove(listener);
+    }
+
+    private void reportSlowConsumer(Subscription subscription, long dropped) {
+        long now = System.currentTimeMillis();
+        if (now - subscription.lastReportTime >= SLOW_CONSUMER_REPORT_INTERVAL_MS) {
+            subscription.lastReportTime = now;
+            logger.warn("Subscriber '{}' is too slow: {} events dropped so far",
+                subscription.name, subscription.droppedEvents.get());
+        }
+        for (SlowConsumerListener listener : slowConsumerListeners) {
+            listener.onEventsDropped(subscription.name, dropped);
+        }
+    }
+
+    private static final class Slot {
+        // Seqlock: sequence when published, -(sequence + 1) while being written
+        private volatile long version = Long.MIN_VALUE;
+        private EventType type;
+        private long frameSequence;
+        private long timestamp;
+        private int intValue;
+        private String stringValue;
+        private double doubleValue;
+        private FusionAI.FusionResult result;
+    }
+
+    public final class Subscription implements Runnable {
+        private final String name;
+        private final EventHandler handler;
+        private final WaitStrategy waitStrategy;
+        private final Thread thread;
+        private final PipelineEvent event;
+        private final AtomicLong droppedEvents;
+        private volatile long sequence;
+        private volatile boolean running;
+        private volatile boolean parked;
+        private long lastReportTime;
+
+        private Subscription(String name, EventHandler handler, WaitStrategy waitStrategy, long startSequence) {
+            this.name = name;
+            this.handler = handler;
+            this.waitStrategy = waitStrategy;
+            this.event = new PipelineEvent();
+            this.droppedEvents = new AtomicLong();
+            this.sequence = startSequence;
+            this.running = true;
+            this.thread = new Thread(this, "event-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idleCount = 0;
+            while (running) {
+                if (readNext()) {
+                    idleCount = 0;
+                    FlightEvents.ListenerDispatchEvent dispatch = new FlightEvents.ListenerDispatchEvent();
+                    dispatch.begin();
+                    try {
+                        handler.onEvent(event);
+                    } catch (Exception e) {
+                        logger.error("Subscriber '{}' failed to handle {}", name, event.getType(), e);
+                    }
+                    if (dispatch.shouldCommit()) {
+                        dispatch.subscriber = name;
+                        dispatch.eventType = event.type.name();
+                        dispatch.busSequence = event.sequence;
+                        dispatch.streamId = streamId;
+                        dispatch.frameSequence = event.frameSequence;
+                        dispatch.commit();
+                    }
+                } else {
+                    waitForEvent(idleCount++);
+                }
+            }
+        }
+
+        private boolean readNext() {
+            long next = sequence;
+
+            // Lapped by the publisher: skip ahead and report instead of stalling everyone
+            long claimed = nextSequence.get();
+            if (claimed - next > slots.length) {
+                long resume = claimed - slots.length / 2;
+                droppedEvents.addAndGet(resume - next);
+                sequence = resume;
+                reportSlowConsumer(this, resume - next);
+                return false;
+            }
+
+            Slot slot = slots[(int) (next & mask)];
+            long before = slot.version;
+            if (before != next) {
+                return false;
+            }
+            event.type = slot.type;
+            event.sequence = next;
+            event.frameSequence = slot.frameSequence;
+            event.timestamp = slot.timestamp;
+            event.intValue = slot.intValue;
+            event.stringValue = slot.stringValue;
+            event.doubleValue = slot.doubleValue;
+            event.result = slot.result;
+            VarHandle.loadLoadFence();
+            if (slot.version != before) {
+                // Overwritten while copying; the lap check above will account for it
+                return false;
+            }
+
+            sequence = next + 1;
+            return true;
+        }
+
+        private void waitForEvent(int idleCount) {
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    if (idleCount < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case SLEEPING:
+                    if (idleCount < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                    }
+                    break;
+                case BLOCKING:
+                default:
+                    parked = true;
+                    // Re-check after announcing so a concurrent publish can't be missed for long
+                    if (slots[(int) (sequence & mask)].version != sequence && running) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                    }
+                    parked = false;
+                    break;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLag() {
+            return Math.max(0, nextSequence.get() - sequence);
+        }
+
+        public long getDroppedEvents() {
+            return droppedEvents.get();
+        }
+    }
+
+    public static class PipelineEvent {
+        private EventType type;
+        private long sequence;
+        private long frameSequence;
+        private long timestamp;
+        private int intValue;
+        private String stringValue;
+        private double doubleValue;
+        private FusionAI.FusionResult result;
+
+        public EventType getType() {
+            return type;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getFrameSequence() {
+            return frameSequence;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getFingerCount() {
+            return intValue;
+        }
+
+        public String getExpression() {
+            return stringValue;
+        }
+
+        public double getConfidence() {
+            return doubleValue;
+        }
+
+        public FusionAI.FusionResult getResult() {
+            return result;
+        }
+    }
+
+    public enum EventType {
+        GESTURE,
+        FACIAL_EXPRESSION,
+        FUSION_RESULT,
+        PROCESSED_RESULT
+    }
+
+    public enum WaitStrategy {
+        BUSY_SPIN,
+        YIELDING,
+        SLEEPING,
+        BLOCKING
+    }
+
+    public interface EventHandler {
+        // The event object is reused by the subscriber; copy anything that must outlive the call
+        void onEvent(PipelineEvent event);
+    }
+
+    public interface SlowConsumerListener {
+        void onEventsDropped(String subscriberName, long droppedEvents);
+    }
+}
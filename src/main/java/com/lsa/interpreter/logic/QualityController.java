@@ -0,0 +1,186 @@
+package com.lsa.interpreter.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+// Keeps per-frame processing time inside a budget by trading detection quality for speed.
+// Frame times are smoothed; sustained overruns step quality down one level, sustained headroom
+// steps it back up. The gap between the two thresholds plus a settle period after each change
+// keeps the level from oscillating, and an upgrade that immediately overruns doubles the wait
+// before the next attempt.
+public class QualityController {
+    private static final Logger logger = LoggerFactory.getLogger(QualityController.class);
+    private static final long DEFAULT_BUDGET_MS = 33;
+    private static final double SMOOTHING = 0.2;
+    private static final double HEADROOM_RATIO = 0.6;
+    private static final int DOWNGRADE_FRAMES = 5;
+    private static final int UPGRADE_FRAMES = 60;
+    private static final int MAX_UPGRADE_FRAMES = UPGRADE_FRAMES * 16;
+    private static final int SETTLE_FRAMES = 15;
+
+    public static final Settings FULL_QUALITY = new Settings(FrameContext.Scale.FULL, 1.1, 1, true);
+
+    // Index 0 is full quality; each level is cheaper than the one before
+    private static final Settings[] LEVELS = {
+        FULL_QUALITY,
+        new Settings(FrameContext.Scale.FULL, 1.2, 2, true),
+        new Settings(FrameContext.Scale.HALF, 1.2, 2, true),
+        new Settings(FrameContext.Scale.HALF, 1.3, 4, false),
+        new Settings(FrameContext.Scale.QUARTER, 1.3, 8, false)
+    };
+
+    private final String streamId;
+    private volatile long budgetNanos;
+    private volatile int level;
+    private volatile int pinnedLevel;
+    private volatile double smoothedNanos;
+    private int overBudgetFrames;
+    private int underBudgetFrames;
+    private int settleFrames;
+    private int upgradeFrames;
+    private int framesSinceUpgrade;
+
+    public QualityController(String streamId) {
+        this.streamId = streamId;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("lsa.frame.budget.ms", DEFAULT_BUDGET_MS));
+        this.pinnedLevel = -1;
+        this.upgradeFrames = UPGRADE_FRAMES;
+        this.framesSinceUpgrade = UPGRADE_FRAMES;
+    }
+
+    // Called once per frame from the processing thread
+    public void recordFrame(long elapsedNanos) {
+        double smoothed = smoothedNanos == 0 ? elapsedNanos : smoothedNanos + SMOOTHING * (elapsedNanos - smoothedNanos);
+        smoothedNanos = smoothed;
+        if (framesSinceUpgrade < UPGRADE_FRAMES && ++framesSinceUpgrade == UPGRADE_FRAMES) {
+            // The last upgrade held, so the next one doesn't need an extended wait
+            upgradeFrames = UPGRADE_FRAMES;
+        }
+        if (pinnedLevel >= 0) {
+            return;
+        }
+        if (settleFrames > 0) {
+            settleFrames--;
+            return;
+        }
+
+        long budget = budgetNanos;
+        if (smoothed > budget) {
+            underBudgetFrames = 0;
+            if (++overBudgetFrames >= DOWNGRADE_FRAMES && level < LEVELS.length - 1) {
+                if (framesSinceUpgrade < UPGRADE_FRAMES) {
+                    // The last upgrade didn't hold; wait longer before trying again
+                    upgradeFrames = Math.min(upgradeFrames * 2, MAX_UPGRADE_FRAMES);
+                    framesSinceUpgrade = UPGRADE_FRAMES;
+                }
+                changeLevel(level + 1, smoothed);
+            }
+        } else if (smoothed < budget * HEADROOM_RATIO) {
+            overBudgetFrames = 0;
+            if (++underBudgetFrames >= upgradeFrames && level > 0) {
+                changeLevel(level - 1, smoothed);
+                framesSinceUpgrade = 0;
+            }
+        } else {
+            overBudgetFrames = 0;
+            underBudgetFrames = 0;
+        }
+    }
+
+    private void changeLevel(int newLevel, double smoothed) {
+        logger.info("Stream '{}' quality level {} -> {} (frame time {} ms, budget {} ms): {}",
+            streamId, level, newLevel, String.format("%.1f", smoothed / 1e6),
+            TimeUnit.NANOSECONDS.toMillis(budgetNanos), LEVELS[newLevel]);
+        level = newLevel;
+        overBudgetFrames = 0;
+        underBudgetFrames = 0;
+        settleFrames = SETTLE_FRAMES;
+    }
+
+    public Settings current() {
+        return LEVELS[getLevel()];
+    }
+
+    // Effective level: the pinned one if set, otherwise the one chosen by the controller
+    public int getLevel() {
+        int pinned = pinnedLevel;
+        return pinned >= 0 ? pinned : level;
+    }
+
+    public void pin(int level) {
+        if (level < 0 || level >= LEVELS.length) {
+            throw new IllegalArgumentException("Quality level must be between 0 and " + (LEVELS.length - 1));
+        }
+        pinnedLevel = level;
+        logger.info("Stream '{}' quality pinned at level {}: {}", streamId, level, LEVELS[level]);
+    }
+
+    public void unpin() {
+        pinnedLevel = -1;
+        logger.info("Stream '{}' quality unpinned, adaptive level is {}", streamId, level);
+    }
+
+    public boolean isPinned() {
+        return pinnedLevel >= 0;
+    }
+
+    public int getLevelCount() {
+        return LEVELS.length;
+    }
+
+    public Settings getSettings(int level) {
+        return LEVELS[level];
+    }
+
+    public void setFrameBudget(long budget, TimeUnit unit) {
+        this.budgetNanos = unit.toNanos(budget);
+    }
+
+    public long getFrameBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public double getSmoothedFrameNanos() {
+        return smoothedNanos;
+    }
+
+    public static final class Settings {
+        private final FrameContext.Scale detectionScale;
+        private final double cascadeScaleFactor;
+        private final int eyeDetectionInterval;
+        private final boolean skinMorphology;
+
+        public Settings(FrameContext.Scale detectionScale, double cascadeScaleFactor,
+                        int eyeDetectionInterval, boolean skinMorphology) {
+            this.detectionScale = detectionScale;
+            this.cascadeScaleFactor = cascadeScaleFactor;
+            this.eyeDetectionInterval = eyeDetectionInterval;
+            this.skinMorphology = skinMorphology;
+        }
+
+        public FrameContext.Scale getDetectionScale() {
+            return detectionScale;
+        }
+
+        public double getCascadeScaleFactor() {
+            return cascadeScaleFactor;
+        }
+
+        // Eyes are searched on one frame out of this many
+        public int getEyeDetectionInterval() {
+            return eyeDetectionInterval;
+        }
+
+        public boolean isSkinMorphology() {
+            return skinMorphology;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("scale=%s, cascadeStep=%.1f, eyesEvery=%d, morphology=%s",
+                detectionScale, cascadeScaleFactor, eyeDetectionInterval, skinMorphology ? "on" : "off");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.lsa.interpreter.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Turns free text into the dictionary signs that express it, for text-to-sign playback. Words are
+// matched greedily, longest phrase first (up to MAX_PHRASE_WORDS words joined with '_', as in
+// THANK_YOU), so a multi-word sign wins over its parts. Words with no sign are reported and
+// skipped. Signs are delivered one at a time as they resolve, so playback can start on the first
+// sign of a long sentence while the rest is still being looked up.
+public class SentenceResolver {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}']+");
+    private static final int MAX_PHRASE_WORDS = 3;
+
+    private final DictionaryManager dictionaryManager;
+
+    public SentenceResolver(DictionaryManager dictionaryManager) {
+        this.dictionaryManager = dictionaryManager;
+    }
+
+    public static List<String> tokenize(String sentence) {
+        List<String> words = new ArrayList<>();
+        if (sentence == null) {
+            return words;
+        }
+        for (String word : WORD_SEPARATOR.split(sentence.trim())) {
+            if (!word.isEmpty()) {
+                words.add(word.toUpperCase(Locale.ROOT));
+            }
+        }
+        return words;
+    }
+
+    public void resolve(String sentence, ResolutionListener listener) {
+        List<String> words = tokenize(sentence);
+        int position = 0;
+        while (position < words.size()) {
+            int matched = 0;
+            DictionaryManager.SignEntry sign = null;
+            for (int length = Math.min(MAX_PHRASE_WORDS, words.size() - position); length > 0 && sign == null; length--) {
+                sign = dictionaryManager.findSign(String.join("_", words.subList(position, position + length)));
+                matched = length;
+            }
+            if (sign != null) {
+                listener.onSignResolved(sign);
+                position += matched;
+            } else {
+                listener.onWordUnresolved(words.get(position));
+                position++;
+            }
+        }
+    }
+
+    public List<DictionaryManager.SignEntry> resolveAll(String sentence) {
+        List<DictionaryManager.SignEntry> signs = new ArrayList<>();
+        resolve(sentence, new ResolutionListener() {
+            @Override
+            public void onSignResolved(DictionaryManager.SignEntry sign) {
+                signs.add(sign);
+            }
+
+            @Override
+            public void onWordUnresolved(String word) {
+            }
+        });
+        return signs;
+    }
+
+    public interface ResolutionListener {
+        void onSignResolved(DictionaryManager.SignEntry sign);
+        void onWordUnresolved(String word);
+    }
+}
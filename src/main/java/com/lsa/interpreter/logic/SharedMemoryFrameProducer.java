@@ -0,0 +1,281 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.MatTracker;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+// Reference producer for the shared-memory frame ring, for local testing of
+// SharedMemoryFrameSource and as a template for native feeders; see SharedMemoryFrameRing for the
+// layout and the write protocol. A ring file is never truncated, since a reader that still has it
+// mapped would fault on the missing pages: an existing ring with the same geometry is reused in
+// place and its frame numbering continued, so attached readers carry on; anything else is replaced
+// by a new ring built under a temporary name and renamed over it, leaving old mappings intact (such
+// readers must reopen the ring). Not thread-safe: a ring has exactly one producer.
+public class SharedMemoryFrameProducer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SharedMemoryFrameProducer.class);
+    private static final String COMPONENT = "SharedMemoryFrameProducer";
+    private static final int DEFAULT_SLOTS = 8;
+    private static final int TEST_PATTERN_WIDTH = 640;
+    private static final int TEST_PATTERN_HEIGHT = 480;
+    private static final long TEST_PATTERN_FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 30;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int slotStride;
+    private final int width;
+    private final int height;
+    private final int type;
+    private final int rowStride;
+    private final Mat[] slotMats;
+    private long sequence;
+
+    public SharedMemoryFrameProducer(Path path, int slotCount, int width, int height, int type) throws IOException {
+        if (slotCount < 2) {
+            throw new IllegalArgumentException("A frame ring needs at least 2 slots, got " + slotCount);
+        }
+        this.path = path;
+        this.slotCount = slotCount;
+        this.width = width;
+        this.height = height;
+        this.type = type;
+        // Rows padded to 64 bytes, as camera SDKs commonly do, so readers must honour rowStride
+        this.rowStride = (width * CvType.ELEM_SIZE(type) + 63) & ~63;
+        this.slotStride = SharedMemoryFrameRing.slotStrideFor(height, rowStride);
+        long size = SharedMemoryFrameRing.fileSize(slotCount, slotStride);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Frame ring of " + size + " bytes exceeds the 2 GB mapping limit");
+        }
+
+        this.slotMats = new Mat[slotCount];
+        MappedByteBuffer existing = mapExistingRing(size);
+        if (existing != null) {
+            this.buffer = existing;
+            this.sequence = (long) SharedMemoryFrameRing.LONGS.getAcquire(buffer, SharedMemoryFrameRing.WRITE_SEQUENCE_OFFSET);
+            logger.info("Reusing shared-memory ring {} from frame {}: {} slots of {}x{} type {} ({} bytes)",
+                path, sequence, slotCount, width, height, type, size);
+        } else {
+            this.buffer = createRing(size);
+            logger.info("Created shared-memory ring {}: {} slots of {}x{} type {} ({} bytes)",
+                path, slotCount, width, height, type, size);
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    // Copies the frame straight into the next slot (one native copy) and publishes it
+    public long write(Mat frame, long timestampNanos) {
+        if (frame.cols() != width || frame.rows() != height || frame.type() != type) {
+            throw new IllegalArgumentException(String.format("Frame %dx%d type %d does not match the ring (%dx%d type %d)",
+                frame.cols(), frame.rows(), frame.type(), width, height, type));
+        }
+        long next = sequence + 1;
+        int slot = begin(next);
+        frame.copyTo(slotMat(slot));
+        return publish(slot, next, timestampNanos);
+    }
+
+    // For producers without OpenCV: pixels are tightly packed rows of width * element size bytes
+    public long write(ByteBuffer pixels, long timestampNanos) {
+        int rowBytes = width * CvType.ELEM_SIZE(type);
+        if (pixels.remaining() < rowBytes * height) {
+            throw new IllegalArgumentException("Expected " + rowBytes * height + " bytes of pixels, got " + pixels.remaining());
+        }
+        long next = sequence + 1;
+        int slot = begin(next);
+        int data = SharedMemoryFrameRing.slotOffset(slot, slotStride) + SharedMemoryFrameRing.SLOT_HEADER_SIZE;
+        int position = pixels.position();
+        for (int row = 0; row < height; row++) {
+            buffer.put(data + row * rowStride, pixels, position + row * rowBytes, rowBytes);
+        }
+        return publish(slot, next, timestampNanos);
+    }
+
+    @Override
+    public void close() {
+        MatTracker tracker = MatTracker.getInstance();
+        for (int i = 0; i < slotMats.length; i++) {
+            tracker.release(slotMats[i]);
+            slotMats[i] = null;
+        }
+        buffer.force();
+        logger.info("Closed shared-memory ring {} after {} frames", path, sequence);
+    }
+
+    // Feeds a recorded video into the ring at its own frame rate, looping, until interrupted
+    public static void feedVideo(Path ring, Path video) throws IOException, InterruptedException {
+        OpenCVFrameConverter.ToOrgOpenCvCoreMat converter = new OpenCVFrameConverter.ToOrgOpenCvCoreMat();
+        SharedMemoryFrameProducer producer = null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile())) {
+                    grabber.start();
+                    long startNanos = System.nanoTime();
+                    long frames = 0;
+                    Frame frame;
+                    while ((frame = grabber.grabImage()) != null) {
+                        frames++;
+                        Mat mat = converter.convert(frame);
+                        if (producer == null) {
+                            producer = new SharedMemoryFrameProducer(ring, slotsFromProperty(), mat.cols(), mat.rows(), mat.type());
+                        }
+                        long due = startNanos + TimeUnit.MICROSECONDS.toNanos(frame.timestamp);
+                        sleepUntil(due);
+                        producer.write(mat, System.nanoTime());
+                    }
+                    if (frames == 0) {
+                        throw new IOException("No video frames in " + video);
+                    }
+                }
+            }
+        } finally {
+            if (producer != null) {
+                producer.close();
+            }
+        }
+    }
+
+    // Feeds a moving test pattern at 30 fps until interrupted, for testing without a camera or video
+    public static void feedTestPattern(Path ring) throws IOException, InterruptedException {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat pattern = tracker.allocateLongLived(COMPONENT);
+        try (SharedMemoryFrameProducer producer = new SharedMemoryFrameProducer(ring, slotsFromProperty(),
+                TEST_PATTERN_WIDTH, TEST_PATTERN_HEIGHT, CvType.CV_8UC3)) {
+            pattern.create(TEST_PATTERN_HEIGHT, TEST_PATTERN_WIDTH, CvType.CV_8UC3);
+            long due = System.nanoTime();
+            for (long n = 0; !Thread.currentThread().isInterrupted(); n++) {
+                pattern.setTo(new Scalar(40, 40, 40));
+                int x = (int) (n * 8 % TEST_PATTERN_WIDTH);
+                Imgproc.rectangle(pattern, new Point(x, 0), new Point(x + 40, TEST_PATTERN_HEIGHT),
+                    new Scalar(120, 170, 220), -1);
+                due += TEST_PATTERN_FRAME_NANOS;
+                sleepUntil(due);
+                producer.write(pattern, System.nanoTime());
+            }
+        } finally {
+            tracker.release(pattern);
+        }
+    }
+
+    private static int slotsFromProperty() {
+        return Integer.getInteger("lsa.shm.slots", DEFAULT_SLOTS);
+    }
+
+    private static void sleepUntil(long dueNanos) throws InterruptedException {
+        long wait = dueNanos - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    // An initialized ring of exactly this geometry, mapped in place; null if there is none
+    private MappedByteBuffer mapExistingRing(long size) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != size) {
+            return null;
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int magic = (int) SharedMemoryFrameRing.INTS.getAcquire(mapped, SharedMemoryFrameRing.MAGIC_OFFSET);
+        boolean matches = magic == SharedMemoryFrameRing.MAGIC
+            && mapped.getInt(SharedMemoryFrameRing.VERSION_OFFSET) == SharedMemoryFrameRing.LAYOUT_VERSION
+            && mapped.getInt(SharedMemoryFrameRing.SLOT_COUNT_OFFSET) == slotCount
+            && mapped.getInt(SharedMemoryFrameRing.SLOT_STRIDE_OFFSET) == slotStride
+            && mapped.getInt(SharedMemoryFrameRing.WIDTH_OFFSET) == width
+            && mapped.getInt(SharedMemoryFrameRing.HEIGHT_OFFSET) == height
+            && mapped.getInt(SharedMemoryFrameRing.TYPE_OFFSET) == type
+            && mapped.getInt(SharedMemoryFrameRing.ROW_STRIDE_OFFSET) == rowStride;
+        return matches ? mapped : null;
+    }
+
+    // Initializes a new ring beside the target and renames it into place in one step
+    private MappedByteBuffer createRing(long size) throws IOException {
+        Path temp = path.resolveSibling("." + path.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try {
+            MappedByteBuffer mapped;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            mapped.putInt(SharedMemoryFrameRing.VERSION_OFFSET, SharedMemoryFrameRing.LAYOUT_VERSION);
+            mapped.putInt(SharedMemoryFrameRing.SLOT_COUNT_OFFSET, slotCount);
+            mapped.putInt(SharedMemoryFrameRing.SLOT_STRIDE_OFFSET, slotStride);
+            mapped.putInt(SharedMemoryFrameRing.WIDTH_OFFSET, width);
+            mapped.putInt(SharedMemoryFrameRing.HEIGHT_OFFSET, height);
+            mapped.putInt(SharedMemoryFrameRing.TYPE_OFFSET, type);
+            mapped.putInt(SharedMemoryFrameRing.ROW_STRIDE_OFFSET, rowStride);
+            SharedMemoryFrameRing.LONGS.setRelease(mapped, SharedMemoryFrameRing.WRITE_SEQUENCE_OFFSET, 0L);
+            // Last, so readers never accept a half-written header
+            SharedMemoryFrameRing.INTS.setRelease(mapped, SharedMemoryFrameRing.MAGIC_OFFSET, SharedMemoryFrameRing.MAGIC);
+            // The mapping follows the file through the rename
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return mapped;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Marks the slot as being written; readers holding its previous frame now see it as torn
+    private int begin(long next) {
+        int slot = SharedMemoryFrameRing.slotIndex(next, slotCount);
+        int offset = SharedMemoryFrameRing.slotOffset(slot, slotStride) + SharedMemoryFrameRing.SLOT_VERSION_OFFSET;
+        SharedMemoryFrameRing.LONGS.setRelease(buffer, offset, 2 * next - 1);
+        // The odd version must be visible before any pixel of the new frame
+        VarHandle.storeStoreFence();
+        return slot;
+    }
+
+    private long publish(int slot, long next, long timestampNanos) {
+        int offset = SharedMemoryFrameRing.slotOffset(slot, slotStride);
+        buffer.putLong(offset + SharedMemoryFrameRing.SLOT_TIMESTAMP_OFFSET, timestampNanos);
+        SharedMemoryFrameRing.LONGS.setRelease(buffer, offset + SharedMemoryFrameRing.SLOT_VERSION_OFFSET, 2 * next);
+        SharedMemoryFrameRing.LONGS.setRelease(buffer, SharedMemoryFrameRing.WRITE_SEQUENCE_OFFSET, next);
+        sequence = next;
+        return next;
+    }
+
+    private Mat slotMat(int slot) {
+        Mat mat = slotMats[slot];
+        if (mat == null) {
+            int offset = SharedMemoryFrameRing.slotOffset(slot, slotStride) + SharedMemoryFrameRing.SLOT_HEADER_SIZE;
+            mat = MatTracker.getInstance().trackLongLived(COMPONENT, new Mat(height, width, type,
+                buffer.slice(offset, SharedMemoryFrameRing.frameBytes(height, rowStride)), rowStride));
+            slotMats[slot] = mat;
+        }
+        return mat;
+    }
+}
@@ -0,0 +1,103 @@
+package com.lsa.interpreter.logic;
+
+import org.opencv.core.CvType;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Layout of the memory-mapped frame ring shared by SharedMemoryFrameSource and its producers.
+// Everything is little-endian. The file is a 4096-byte header followed by slotCount slots:
+//
+//   header  0  int   magic 0x4C534152 ("LSAR"), written last so a half-initialized ring is rejected
+//           4  int   layout version (1)
+//           8  int   slotCount
+//          12  int   slotStride, bytes from one slot to the next (multiple of 64)
+//          16  int   width
+//          20  int   height
+//          24  int   OpenCV Mat type of the pixels, e.g. CvType.CV_8UC3 (16) for BGR
+//          28  int   rowStride, bytes per pixel row (at least width * element size)
+//          32  long  writeSequence, the last completely written frame (0 before the first)
+//   slot    0  long  version: 2n - 1 while frame n is being written, 2n once it is complete
+//           8  long  capture timestamp, CLOCK_MONOTONIC nanoseconds (System.nanoTime() on Linux)
+//          64        pixels, height rows of rowStride bytes
+//
+// Frame n (counting from 1) goes to slot (n - 1) % slotCount. Each slot is a seqlock: a producer
+// marks it odd, writes the pixels and timestamp, marks it even and then publishes writeSequence,
+// so a reader that sees the same even version before and after reading knows the pixels were not
+// overwritten in between. No locks are taken on either side.
+final class SharedMemoryFrameRing {
+    static final int MAGIC = 0x4C534152;
+    static final int LAYOUT_VERSION = 1;
+    static final int HEADER_SIZE = 4096;
+    static final int SLOT_HEADER_SIZE = 64;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOT_COUNT_OFFSET = 8;
+    static final int SLOT_STRIDE_OFFSET = 12;
+    static final int WIDTH_OFFSET = 16;
+    static final int HEIGHT_OFFSET = 20;
+    static final int TYPE_OFFSET = 24;
+    static final int ROW_STRIDE_OFFSET = 28;
+    static final int WRITE_SEQUENCE_OFFSET = 32;
+    static final int SLOT_VERSION_OFFSET = 0;
+    static final int SLOT_TIMESTAMP_OFFSET = 8;
+
+    // Acquire/release access to the sequence words of a mapped (direct) buffer
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private SharedMemoryFrameRing() {
+    }
+
+    static int slotIndex(long sequence, int slotCount) {
+        return (int) ((sequence - 1) % slotCount);
+    }
+
+    static int slotOffset(int slot, int slotStride) {
+        return HEADER_SIZE + slot * slotStride;
+    }
+
+    static int frameBytes(int height, int rowStride) {
+        return height * rowStride;
+    }
+
+    // Smallest 64-byte-aligned stride holding a slot header and one frame
+    static int slotStrideFor(int height, int rowStride) {
+        int bytes = SLOT_HEADER_SIZE + frameBytes(height, rowStride);
+        return (bytes + 63) & ~63;
+    }
+
+    static long fileSize(int slotCount, int slotStride) {
+        return HEADER_SIZE + (long) slotCount * slotStride;
+    }
+
+    // Rejects headers that would map pixels outside the file
+    static void validate(ByteBuffer header, long fileSize) throws IOException {
+        int magic = (int) INTS.getAcquire(header, MAGIC_OFFSET);
+        if (magic != MAGIC) {
+            throw new IOException("Not an initialized frame ring (magic " + Integer.toHexString(magic) + ")");
+        }
+        int version = header.getInt(VERSION_OFFSET);
+        if (version != LAYOUT_VERSION) {
+            throw new IOException("Unsupported frame ring layout version " + version);
+        }
+        int slotCount = header.getInt(SLOT_COUNT_OFFSET);
+        int slotStride = header.getInt(SLOT_STRIDE_OFFSET);
+        int width = header.getInt(WIDTH_OFFSET);
+        int height = header.getInt(HEIGHT_OFFSET);
+        int type = header.getInt(TYPE_OFFSET);
+        int rowStride = header.getInt(ROW_STRIDE_OFFSET);
+        if (slotCount < 2 || width <= 0 || height <= 0 || slotStride % 64 != 0
+                || (long) rowStride < (long) width * CvType.ELEM_SIZE(type)
+                || (long) SLOT_HEADER_SIZE + (long) height * rowStride > slotStride
+                || fileSize(slotCount, slotStride) > Math.min(fileSize, Integer.MAX_VALUE)) {
+            throw new IOException(String.format(
+                "Inconsistent frame ring header: %d slots of %d bytes, %dx%d type %d, %d bytes per row, file %d bytes",
+                slotCount, slotStride, width, height, type, rowStride, fileSize));
+        }
+    }
+}
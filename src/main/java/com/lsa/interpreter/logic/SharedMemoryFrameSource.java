@@ -0,0 +1,226 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsRegistry;
+import org.opencv.core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Reads frames that an external process (e.g. an industrial camera feeder) writes into a
+// memory-mapped ring file; see SharedMemoryFrameRing for the layout. Each slot's pixels are wrapped
+// once as a Mat over the mapping, so frames reach the pipeline without a copy. The mapping is
+// read-only: the pipeline never writes into its input frame.
+//
+// Reads are lock-free. Frames are delivered in order while the reader keeps up; once it falls
+// more than half the ring behind it jumps to the newest frame, since older slots are about to be
+// overwritten, and counts the skipped frames as dropped. A frame the producer has started
+// overwriting fails isIntact() and is counted as torn. Not thread-safe: one reader per source.
+public class SharedMemoryFrameSource implements FrameSource {
+    private static final Logger logger = LoggerFactory.getLogger(SharedMemoryFrameSource.class);
+    private static final String COMPONENT = "SharedMemoryFrameSource";
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int slotStride;
+    private final int width;
+    private final int height;
+    private final int type;
+    private final int rowStride;
+    private final Mat[] slotMats;
+    private final SlotFrame frame;
+    private final MetricsRegistry.Counter droppedCounter;
+    private final MetricsRegistry.Counter tornCounter;
+    private long lastSequence;
+    private long droppedFrames;
+
+    public SharedMemoryFrameSource(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            SharedMemoryFrameRing.validate(buffer, channel.size());
+        }
+        this.slotCount = buffer.getInt(SharedMemoryFrameRing.SLOT_COUNT_OFFSET);
+        this.slotStride = buffer.getInt(SharedMemoryFrameRing.SLOT_STRIDE_OFFSET);
+        this.width = buffer.getInt(SharedMemoryFrameRing.WIDTH_OFFSET);
+        this.height = buffer.getInt(SharedMemoryFrameRing.HEIGHT_OFFSET);
+        this.type = buffer.getInt(SharedMemoryFrameRing.TYPE_OFFSET);
+        this.rowStride = buffer.getInt(SharedMemoryFrameRing.ROW_STRIDE_OFFSET);
+        this.slotMats = new Mat[slotCount];
+        this.frame = new SlotFrame();
+
+        String ring = path.getFileName().toString();
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.droppedCounter = metrics.counter("lsa_shm_frames_dropped_total",
+            "Shared-memory frames skipped because the reader fell behind", "ring", ring);
+        this.tornCounter = metrics.counter("lsa_shm_frames_torn_total",
+            "Shared-memory frames overwritten by the producer while being read", "ring", ring);
+
+        // Start from whatever the producer wrote last rather than replaying the ring
+        this.lastSequence = Math.max(0, writeSequence() - 1);
+        logger.info("Reading {}x{} frames (type {}) from shared-memory ring {} with {} slots",
+            width, height, type, path, slotCount);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    @Override
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    @Override
+    public Frame read(long timeout, TimeUnit unit) throws InterruptedException {
+        // The previous frame's memory may now be reused by the producer
+        if (frame.sequence != 0 && !frame.isIntact()) {
+            tornCounter.inc();
+        }
+        frame.sequence = 0;
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int spins = 0;
+        while (true) {
+            long written = writeSequence();
+            if (written > lastSequence) {
+                long next = lastSequence + 1;
+                if (written - next > slotCount / 2) {
+                    next = written;
+                }
+                int slot = SharedMemoryFrameRing.slotIndex(next, slotCount);
+                long version = slotVersion(slot);
+                if (version == 2 * next) {
+                    // Reading the timestamp after the version, then re-checking, keeps the pair consistent
+                    long timestamp = buffer.getLong(slotOffset(slot) + SharedMemoryFrameRing.SLOT_TIMESTAMP_OFFSET);
+                    VarHandle.acquireFence();
+                    if (slotVersion(slot) == version) {
+                        skip(next - lastSequence - 1);
+                        lastSequence = next;
+                        frame.set(slot, next, timestamp, version);
+                        return frame;
+                    }
+                }
+                // Lapped by the producer between reading writeSequence and the slot: go again from the newest
+                skip(written - lastSequence - 1);
+                lastSequence = written - 1;
+                continue;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            if (++spins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(Math.min(PARK_NANOS, remaining));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        MatTracker tracker = MatTracker.getInstance();
+        for (int i = 0; i < slotMats.length; i++) {
+            tracker.release(slotMats[i]);
+            slotMats[i] = null;
+        }
+        frame.sequence = 0;
+        logger.info("Closed shared-memory ring {} ({} frames dropped)", path, droppedFrames);
+    }
+
+    private void skip(long frames) {
+        if (frames > 0) {
+            droppedFrames += frames;
+            droppedCounter.add(frames);
+        }
+    }
+
+    private long writeSequence() {
+        return (long) SharedMemoryFrameRing.LONGS.getAcquire(buffer, SharedMemoryFrameRing.WRITE_SEQUENCE_OFFSET);
+    }
+
+    private long slotVersion(int slot) {
+        return (long) SharedMemoryFrameRing.LONGS.getAcquire(buffer,
+            slotOffset(slot) + SharedMemoryFrameRing.SLOT_VERSION_OFFSET);
+    }
+
+    private int slotOffset(int slot) {
+        return SharedMemoryFrameRing.slotOffset(slot, slotStride);
+    }
+
+    // Wraps the slot's pixels in place the first time the slot is used
+    private Mat slotMat(int slot) {
+        Mat mat = slotMats[slot];
+        if (mat == null) {
+            int offset = slotOffset(slot) + SharedMemoryFrameRing.SLOT_HEADER_SIZE;
+            mat = MatTracker.getInstance().trackLongLived(COMPONENT, new Mat(height, width, type,
+                buffer.slice(offset, SharedMemoryFrameRing.frameBytes(height, rowStride)), rowStride));
+            slotMats[slot] = mat;
+        }
+        return mat;
+    }
+
+    // Reused for every read, like the frame memory it points at
+    private final class SlotFrame implements Frame {
+        private int slot;
+        private long sequence;
+        private long timestampNanos;
+        private long version;
+
+        private void set(int slot, long sequence, long timestampNanos, long version) {
+            this.slot = slot;
+            this.sequence = sequence;
+            this.timestampNanos = timestampNanos;
+            this.version = version;
+        }
+
+        @Override
+        public Mat getMat() {
+            return slotMat(slot);
+        }
+
+        @Override
+        public long getSequence() {
+            return sequence;
+        }
+
+        @Override
+        public long getTimestampNanos() {
+            return timestampNanos;
+        }
+
+        @Override
+        public boolean isIntact() {
+            // Orders every earlier pixel read before the version check
+            VarHandle.acquireFence();
+            return sequence != 0 && slotVersion(slot) == version;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.lsa.interpreter.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SignClassifier {
+    private static final Logger logger = LoggerFactory.getLogger(SignClassifier.class);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimension;
+    private final int lanes;
+    private final int blockSize;
+    private final DistanceKernel kernel;
+    private final Map<String, Integer> labelsBySign;
+    private final List<String> signsByLabel;
+    private volatile TemplateIndex index;
+
+    public SignClassifier() {
+        this(SignFeatureExtractor.FEATURE_DIMENSION);
+    }
+
+    public SignClassifier(int dimension) {
+        this.dimension = dimension;
+        this.kernel = DistanceKernel.create();
+        // Templates are stored in blocks of one SIMD register width, dimension-major within a block
+        this.lanes = kernel.laneCount();
+        this.blockSize = dimension * lanes;
+        this.labelsBySign = new HashMap<>();
+        this.signsByLabel = new ArrayList<>();
+        this.index = new TemplateIndex(new float[INITIAL_CAPACITY * dimension], new int[INITIAL_CAPACITY], new String[0], 0);
+
+        logger.info("SignClassifier initialized (dimension {}, kernel {})", dimension, kernel.name());
+    }
+
+    public synchronized void addTemplate(String sign, float[] features) {
+        if (features.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " features but got " + features.length);
+        }
+
+        TemplateIndex current = index;
+        float[] vectors = current.vectors;
+        int[] labels = current.labels;
+
+        // Grow by doubling; readers keep using the old arrays until the new index is published
+        if (current.count == labels.length) {
+            vectors = Arrays.copyOf(vectors, vectors.length * 2);
+            labels = Arrays.copyOf(labels, labels.length * 2);
+        }
+
+        Integer label = labelsBySign.get(sign);
+        if (label == null) {
+            label = signsByLabel.size();
+            labelsBySign.put(sign, label);
+            signsByLabel.add(sign);
+        }
+
+        // Slots past the published count are invisible to readers, so they can be written in place
+        int offset = current.count / lanes * blockSize + current.count % lanes;
+        for (int d = 0; d < dimension; d++) {
+            vectors[offset + d * lanes] = features[d];
+        }
+        labels[current.count] = label;
+
+        index = new TemplateIndex(vectors, labels, signsByLabel.toArray(new String[0]), current.count + 1);
+    }
+
+    public synchronized int removeSign(String sign) {
+        Integer label = labelsBySign.get(sign);
+        if (label == null) {
+            return 0;
+        }
+
+        // Copy the surviving templates into fresh arrays; in-flight searches keep the old snapshot
+        TemplateIndex current = index;
+        float[] vectors = new float[current.vectors.length];
+        int[] labels = new int[current.labels.length];
+        int count = 0;
+        for (int t = 0; t < current.count; t++) {
+            if (current.labels[t] == label) {
+                continue;
+            }
+            int from = t / lanes * blockSize + t % lanes;
+            int to = count / lanes * blockSize + count % lanes;
+            for (int d = 0; d < dimension; d++) {
+                vectors[to + d * lanes] = current.vectors[from + d * lanes];
+            }
+            labels[count++] = current.labels[t];
+        }
+
+        index = new TemplateIndex(vectors, labels, current.signs, count);
+        int removed = current.count - count;
+        logger.info("Removed {} templates for sign {}", removed, sign);
+        return removed;
+    }
+
+    // Replaces the templates with a copy of another classifier's, without going back to the store
+    public synchronized void copyFrom(SignClassifier source) {
+        if (source.dimension != dimension || source.lanes != lanes) {
+            throw new IllegalArgumentException("Classifier layouts differ");
+        }
+        TemplateIndex snapshot = source.index;
+        labelsBySign.clear();
+        signsByLabel.clear();
+        for (String sign : snapshot.signs) {
+            labelsBySign.put(sign, signsByLabel.size());
+            signsByLabel.add(sign);
+        }
+        // Copied, since the source keeps writing new templates into its arrays in place
+        index = new TemplateIndex(snapshot.vectors.clone(), snapshot.labels.clone(), snapshot.signs, snapshot.count);
+    }
+
+    public synchronized void clear() {
+        labelsBySign.clear();
+        signsByLabel.clear();
+        index = new TemplateIndex(new float[INITIAL_CAPACITY * dimension], new int[INITIAL_CAPACITY], new String[0], 0);
+        logger.info("Sign templates cleared");
+    }
+
+    public List<SignMatch> classify(float[] features, int k) {
+        if (features == null || features.length != dimension || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        TemplateIndex snapshot = index;
+        if (snapshot.count == 0) {
+            return Collections.emptyList();
+        }
+
+        float[] vectors = snapshot.vectors;
+        int[] labels = snapshot.labels;
+        float[] blockDistances = new float[lanes];
+
+        // Brute-force scan keeping the k best distinct signs (sorted ascending)
+        float[] bestDistances = new float[k];
+        int[] bestLabels = new int[k];
+        int size = 0;
+
+        for (int base = 0; base < snapshot.count; base += lanes) {
+            kernel.blockDistances(features, vectors, base * dimension, dimension, blockDistances);
+            int blockEnd = Math.min(lanes, snapshot.count - base);
+
+            for (int lane = 0; lane < blockEnd; lane++) {
+                float distance = blockDistances[lane];
+                if (size == k && distance >= bestDistances[k - 1]) {
+                    continue;
+                }
+
+                int label = labels[base + lane];
+                int existing = -1;
+                for (int i = 0; i < size; i++) {
+                    if (bestLabels[i] == label) {
+                        existing = i;
+                        break;
+                    }
+                }
+
+                int position;
+                if (existing >= 0) {
+                    if (distance >= bestDistances[existing]) {
+                        continue;
+                    }
+                    position = existing;
+                } else {
+                    position = size < k ? size++ : k - 1;
+                }
+
+                // Shift worse entries down and insert in sorted order
+                while (position > 0 && bestDistances[position - 1] > distance) {
+                    bestDistances[position] = bestDistances[position - 1];
+                    bestLabels[position] = bestLabels[position - 1];
+                    position--;
+                }
+                bestDistances[position] = distance;
+                bestLabels[position] = label;
+            }
+        }
+
+        List<SignMatch> matches = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            matches.add(new SignMatch(snapshot.signs[bestLabels[i]], (float) Math.sqrt(bestDistances[i])));
+        }
+        return matches;
+    }
+
+    public int getTemplateCount() {
+        return index.count;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    private static class TemplateIndex {
+        private final float[] vectors;
+        private final int[] labels;
+        private final String[] signs;
+        private final int count;
+
+        TemplateIndex(float[] vectors, int[] labels, String[] signs, int count) {
+            this.vectors = vectors;
+            this.labels = labels;
+            this.signs = signs;
+            this.count = count;
+        }
+    }
+
+    public static class SignMatch {
+        private final String sign;
+        private final float distance;
+
+        public SignMatch(String sign, float distance) {
+            this.sign = sign;
+            this.distance = distance;
+        }
+
+        public String getSign() {
+            return sign;
+        }
+
+        public float getDistance() {
+            return distance;
+        }
+
+        public double getConfidence() {
+            return 1.0 / (1.0 + distance);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (distance: %.3f)", sign, distance);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.lsa.interpreter.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SignEnrollment {
+    private static final Logger logger = LoggerFactory.getLogger(SignEnrollment.class);
+    private static final int DEFAULT_REPETITIONS = 3;
+
+    private final FusionAI fusionAI;
+    private final TemplateStore templateStore;
+    private final List<EnrollmentListener> listeners;
+    private final List<float[]> capturedTemplates;
+    private DictionaryManager.SignEntry currentSign;
+    private int targetRepetitions;
+
+    public SignEnrollment(FusionAI fusionAI, TemplateStore templateStore) {
+        this.fusionAI = fusionAI;
+        this.templateStore = templateStore;
+        this.listeners = new ArrayList<>();
+        this.capturedTemplates = new ArrayList<>();
+
+        logger.info("SignEnrollment initialized");
+    }
+
+    public synchronized void startEnrollment(DictionaryManager.SignEntry sign) {
+        startEnrollment(sign, DEFAULT_REPETITIONS);
+    }
+
+    public synchronized void startEnrollment(DictionaryManager.SignEntry sign, int repetitions) {
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("Repetitions must be positive: " + repetitions);
+        }
+        currentSign = sign;
+        targetRepetitions = repetitions;
+        capturedTemplates.clear();
+
+        // Start from an empty window so the first repetition isn't mixed with earlier frames
+        fusionAI.getFeatureExtractor().reset();
+        logger.info("Enrollment started for sign {} ({} repetitions)", sign.getSign(), repetitions);
+    }
+
+    public synchronized boolean captureRepetition() {
+        if (currentSign == null) {
+            logger.warn("Cannot capture repetition: no enrollment in progress");
+            return false;
+        }
+
+        // Take the current frame window from the live pipeline
+        float[] features = fusionAI.getFeatureExtractor().extract();
+        if (features == null) {
+            logger.warn("Cannot capture repetition: no hand observed yet");
+            return false;
+        }
+        capturedTemplates.add(features);
+        fusionAI.getFeatureExtractor().reset();
+
+        DictionaryManager.SignEntry sign = currentSign;
+        int captured = capturedTemplates.size();
+        notifyRepetitionCaptured(sign, captured, targetRepetitions);
+
+        if (captured >= targetRepetitions) {
+            commit();
+        }
+        return true;
+    }
+
+    public synchronized void cancel() {
+        if (currentSign != null) {
+            logger.info("Enrollment cancelled for sign {}", currentSign.getSign());
+        }
+        currentSign = null;
+        capturedTemplates.clear();
+    }
+
+    public void removeVariants(DictionaryManager.SignEntry sign) {
+        fusionAI.getSignClassifier().removeSign(sign.getSign());
+        templateStore.remove(sign.getSign());
+    }
+
+    public synchronized boolean isEnrolling() {
+        return currentSign != null;
+    }
+
+    public synchronized DictionaryManager.SignEntry getCurrentSign() {
+        return currentSign;
+    }
+
+    private void commit() {
+        String sign = currentSign.getSign();
+        List<float[]> templates = new ArrayList<>(capturedTemplates);
+
+        // Searchable immediately; the disk append happens on the store's own thread
+        SignClassifier classifier = fusionAI.getSignClassifier();
+        for (float[] features : templates) {
+            classifier.addTemplate(sign, features);
+        }
+        templateStore.append(sign, templates);
+
+        DictionaryManager.SignEntry enrolled = currentSign;
+        currentSign = null;
+        capturedTemplates.clear();
+
+        logger.info("Enrolled {} templates for sign {}", templates.size(), sign);
+        notifyEnrollmentCompleted(enrolled, templates.size());
+    }
+
+    public void addListener(EnrollmentListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(EnrollmentListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyRepetitionCaptured(DictionaryManager.SignEntry sign, int captured, int total) {
+        for (EnrollmentListener listener : listeners) {
+            listener.onRepetitionCaptured(sign, captured, total);
+        }
+    }
+
+    private void notifyEnrollmentCompleted(DictionaryManager.SignEntry sign, int templateCount) {
+        for (EnrollmentListener listener : listeners) {
+            listener.onEnrollmentCompleted(sign, templateCount);
+        }
+    }
+
+    public interface EnrollmentListener {
+        void onRepetitionCaptured(DictionaryManager.SignEntry sign, int captured, int total);
+        void onEnrollmentCompleted(DictionaryManager.SignEntry sign, int templateCount);
+    }
+}
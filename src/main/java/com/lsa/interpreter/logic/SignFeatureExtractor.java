@@ -0,0 +1,166 @@
+package com.lsa.interpreter.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+public class SignFeatureExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(SignFeatureExtractor.class);
+    private static final int DEFAULT_WINDOW_SIZE = 15;
+    private static final double HU_SCALE = 10.0;
+
+    // Feature vector layout
+    public static final int HU_OFFSET = 0;
+    public static final int FINGER_COUNT = 7;
+    public static final int DEFECT_COUNT = 8;
+    public static final int MEAN_DEFECT_DEPTH = 9;
+    public static final int MAX_DEFECT_DEPTH = 10;
+    public static final int MEAN_DEFECT_ANGLE = 11;
+    public static final int SOLIDITY = 12;
+    public static final int ASPECT_RATIO = 13;
+    public static final int RELATIVE_AREA = 14;
+    public static final int POSITION_X = 15;
+    public static final int POSITION_Y = 16;
+    public static final int DISPLACEMENT_X = 17;
+    public static final int DISPLACEMENT_Y = 18;
+    public static final int PATH_LENGTH = 19;
+    public static final int EXPRESSION_OFFSET = 20;
+    public static final int FACE_PRESENCE = 23;
+    public static final int FEATURE_DIMENSION = 24;
+
+    private static final String[] EXPRESSIONS = {"NEUTRAL", "POSITIVE", "EXPRESSIVE"};
+
+    private final int windowSize;
+    private final GestureDetector.HandObservation[] handWindow;
+    private final int[] expressionWindow;
+    private final double[] expressionConfidence;
+    private int handHead;
+    private int handCount;
+    private int faceHead;
+    private int faceCount;
+
+    public SignFeatureExtractor() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public SignFeatureExtractor(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.handWindow = new GestureDetector.HandObservation[windowSize];
+        this.expressionWindow = new int[windowSize];
+        this.expressionConfidence = new double[windowSize];
+
+        logger.info("SignFeatureExtractor initialized with a {}-frame window", windowSize);
+    }
+
+    public synchronized void addHandObservation(GestureDetector.HandObservation observation) {
+        handWindow[handHead] = observation;
+        handHead = (handHead + 1) % windowSize;
+        handCount = Math.min(handCount + 1, windowSize);
+    }
+
+    public synchronized void addFaceObservation(String expression, double confidence) {
+        int index = expressionIndex(expression);
+        if (index < 0) {
+            return;
+        }
+        expressionWindow[faceHead] = index;
+        expressionConfidence[faceHead] = confidence;
+        faceHead = (faceHead + 1) % windowSize;
+        faceCount = Math.min(faceCount + 1, windowSize);
+    }
+
+    public synchronized boolean isReady() {
+        return handCount > 0;
+    }
+
+    public synchronized float[] extract() {
+        if (handCount == 0) {
+            return null;
+        }
+
+        float[] features = new float[FEATURE_DIMENSION];
+        int oldest = (handHead - handCount + windowSize) % windowSize;
+
+        // Average hand shape over the window
+        double prevX = 0;
+        double prevY = 0;
+        double pathLength = 0;
+        for (int i = 0; i < handCount; i++) {
+            GestureDetector.HandObservation observation = handWindow[(oldest + i) % windowSize];
+            double[] hu = observation.getHuMoments();
+            for (int h = 0; h < 7; h++) {
+                features[HU_OFFSET + h] += (float) logScale(hu[h]);
+            }
+            features[FINGER_COUNT] += observation.getFingerCount() / 5f;
+            features[DEFECT_COUNT] += Math.min(observation.getDefectCount(), 10) / 10f;
+            features[MEAN_DEFECT_DEPTH] += (float) observation.getMeanDefectDepth();
+            features[MAX_DEFECT_DEPTH] += (float) observation.getMaxDefectDepth();
+            features[MEAN_DEFECT_ANGLE] += (float) (observation.getMeanDefectAngle() / 180.0);
+            features[SOLIDITY] += (float) observation.getSolidity();
+            features[ASPECT_RATIO] += (float) Math.min(observation.getAspectRatio(), 4.0) / 4f;
+            features[RELATIVE_AREA] += (float) observation.getRelativeArea();
+            features[POSITION_X] += (float) observation.getCentroidX();
+            features[POSITION_Y] += (float) observation.getCentroidY();
+
+            // Hand trajectory
+            if (i > 0) {
+                pathLength += Math.hypot(observation.getCentroidX() - prevX, observation.getCentroidY() - prevY);
+            }
+            prevX = observation.getCentroidX();
+            prevY = observation.getCentroidY();
+        }
+        for (int f = HU_OFFSET; f <= POSITION_Y; f++) {
+            features[f] /= handCount;
+        }
+
+        GestureDetector.HandObservation first = handWindow[oldest];
+        features[DISPLACEMENT_X] = (float) (prevX - first.getCentroidX());
+        features[DISPLACEMENT_Y] = (float) (prevY - first.getCentroidY());
+        features[PATH_LENGTH] = (float) Math.min(pathLength, 1.0);
+
+        // Face features
+        for (int i = 0; i < faceCount; i++) {
+            features[EXPRESSION_OFFSET + expressionWindow[i]] += (float) expressionConfidence[i];
+        }
+        if (faceCount > 0) {
+            for (int e = 0; e < EXPRESSIONS.length; e++) {
+                features[EXPRESSION_OFFSET + e] /= faceCount;
+            }
+        }
+        features[FACE_PRESENCE] = Math.min(1f, (float) faceCount / handCount);
+
+        return features;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(handWindow, null);
+        handHead = 0;
+        handCount = 0;
+        faceHead = 0;
+        faceCount = 0;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    private static double logScale(double huMoment) {
+        if (huMoment == 0) {
+            return 0.0;
+        }
+        return -Math.signum(huMoment) * Math.log10(Math.abs(huMoment)) / HU_SCALE;
+    }
+
+    private static int expressionIndex(String expression) {
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            if (EXPRESSIONS[i].equals(expression)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,250 @@
+package com.lsa.interpreter.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Typo-tolerant search over the dictionary, built once per load. Sign names (whole and word by
+// word) and tags are stored as terms in a trie, and a query is matched by walking the trie with one
+// Levenshtein row per level, which is a Levenshtein automaton in dynamic-programming form: a
+// branch is abandoned as soon as every cell of its row exceeds the allowed distance, so shared
+// prefixes are scored once and most of the dictionary is never visited. Substring matches on the
+// precomputed lowercase fields still come first, so typing a prefix behaves as before. Results are
+// ranked by edit distance, then by field (sign name, tag, description), then by dictionary order.
+// Immutable once built and safe to search from any thread.
+public class SignSearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int SIGN_FIELD = 0;
+    private static final int TAG_FIELD = 1;
+    private static final int DESCRIPTION_FIELD = 2;
+    private static final int FIELD_COUNT = 3;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final List<DictionaryManager.SignEntry> entries;
+    private final String[] signs;
+    private final String[] tags;
+    private final String[] descriptions;
+    // All three fields joined by a separator no query contains, so a miss costs one scan
+    private final String[] haystacks;
+    private final int maxDistance;
+    private final Trie trie;
+
+    public SignSearchIndex(List<DictionaryManager.SignEntry> entries) {
+        this(entries, Integer.getInteger("lsa.dictionary.fuzzy.distance", 2));
+    }
+
+    public SignSearchIndex(List<DictionaryManager.SignEntry> entries, int maxDistance) {
+        this.entries = new ArrayList<>(entries);
+        this.maxDistance = maxDistance;
+        int count = this.entries.size();
+        this.signs = new String[count];
+        this.tags = new String[count];
+        this.descriptions = new String[count];
+        this.haystacks = new String[count];
+        this.trie = new Trie();
+
+        for (int i = 0; i < count; i++) {
+            DictionaryManager.SignEntry entry = this.entries.get(i);
+            signs[i] = normalize(entry.getSign());
+            tags[i] = entry.getTags().toLowerCase(Locale.ROOT);
+            descriptions[i] = entry.getDescription().toLowerCase(Locale.ROOT);
+            haystacks[i] = signs[i] + '\n' + tags[i] + '\n' + descriptions[i];
+
+            trie.add(signs[i], i, SIGN_FIELD);
+            for (String word : WORD_SEPARATOR.split(signs[i])) {
+                trie.add(word, i, SIGN_FIELD);
+            }
+            for (String tag : WORD_SEPARATOR.split(tags[i])) {
+                trie.add(tag, i, TAG_FIELD);
+            }
+        }
+        trie.compact();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<DictionaryManager.SignEntry> search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new ArrayList<>(entries);
+        }
+        String normalized = normalize(query);
+
+        // Best distance * FIELD_COUNT + field per entry, lower is better
+        int[] rank = new int[entries.size()];
+        Arrays.fill(rank, NO_MATCH);
+        for (int i = 0; i < entries.size(); i++) {
+            if (!haystacks[i].contains(normalized)) {
+                continue;
+            }
+            if (signs[i].contains(normalized)) {
+                rank[i] = SIGN_FIELD;
+            } else if (tags[i].contains(normalized)) {
+                rank[i] = TAG_FIELD;
+            } else if (descriptions[i].contains(normalized)) {
+                rank[i] = DESCRIPTION_FIELD;
+            }
+        }
+        int k = allowedDistance(normalized);
+        if (k > 0) {
+            trie.match(normalized, k, rank);
+        }
+
+        // Ranks take only (k + 1) * FIELD_COUNT values, so bucket them instead of sorting
+        List<DictionaryManager.SignEntry> results = new ArrayList<>();
+        int buckets = (k + 1) * FIELD_COUNT;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            for (int i = 0; i < rank.length; i++) {
+                if (rank[i] == bucket) {
+                    results.add(entries.get(i));
+                }
+            }
+        }
+        return results;
+    }
+
+    // Short queries tolerate fewer typos, otherwise two-letter queries would match half the dictionary
+    private int allowedDistance(String query) {
+        int length = query.length();
+        int k = length <= 2 ? 0 : length <= 4 ? 1 : 2;
+        return Math.max(0, Math.min(k, maxDistance));
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('_', ' ').trim();
+    }
+
+    // Array-backed trie: node 0 is the root, children are a first-child / next-sibling list
+    private static final class Trie {
+        private char[] labels = new char[1024];
+        private int[] firstChild = new int[1024];
+        private int[] nextSibling = new int[1024];
+        // Postings of the term ending at a node (entry index * FIELD_COUNT + field), or null
+        private int[][] postings = new int[1024][];
+        private int[] postingCounts = new int[1024];
+        private int nodeCount = 1;
+        private int maxDepth;
+
+        private Trie() {
+            firstChild[0] = -1;
+            nextSibling[0] = -1;
+        }
+
+        private void add(String term, int entry, int field) {
+            if (term.isEmpty()) {
+                return;
+            }
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                node = childOrCreate(node, term.charAt(i));
+            }
+            maxDepth = Math.max(maxDepth, term.length());
+
+            int posting = entry * FIELD_COUNT + field;
+            int count = postingCounts[node];
+            int[] list = postings[node];
+            if (count > 0 && list[count - 1] / FIELD_COUNT == entry) {
+                // Same entry again (e.g. a one-word sign is also its own word): keep the better field
+                list[count - 1] = Math.min(list[count - 1], posting);
+                return;
+            }
+            if (list == null) {
+                list = new int[1];
+            } else if (count == list.length) {
+                list = Arrays.copyOf(list, count * 2);
+            }
+            list[count] = posting;
+            postings[node] = list;
+            postingCounts[node] = count + 1;
+        }
+
+        private int childOrCreate(int parent, char label) {
+            for (int child = firstChild[parent]; child != -1; child = nextSibling[child]) {
+                if (labels[child] == label) {
+                    return child;
+                }
+            }
+            if (nodeCount == labels.length) {
+                int capacity = nodeCount * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                postings = Arrays.copyOf(postings, capacity);
+                postingCounts = Arrays.copyOf(postingCounts, capacity);
+            }
+            int node = nodeCount++;
+            labels[node] = label;
+            firstChild[node] = -1;
+            nextSibling[node] = firstChild[parent];
+            firstChild[parent] = node;
+            return node;
+        }
+
+        private void compact() {
+            labels = Arrays.copyOf(labels, nodeCount);
+            firstChild = Arrays.copyOf(firstChild, nodeCount);
+            nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+            postings = Arrays.copyOf(postings, nodeCount);
+            postingCounts = Arrays.copyOf(postingCounts, nodeCount);
+        }
+
+        // Lowers rank[entry] for every term within distance k of query
+        private void match(String query, int k, int[] rank) {
+            char[] chars = query.toCharArray();
+            int[][] rows = new int[maxDepth + 1][chars.length + 1];
+            for (int i = 0; i <= chars.length; i++) {
+                rows[0][i] = Math.min(i, k + 1);
+            }
+            for (int child = firstChild[0]; child != -1; child = nextSibling[child]) {
+                walk(child, 1, chars, k, rows, rank);
+            }
+        }
+
+        // Only the cells within k of the diagonal can stay within k, so the rest of each row is
+        // left at the k + 1 sentinel and cells are capped there
+        private void walk(int node, int depth, char[] query, int k, int[][] rows, int[] rank) {
+            int[] previous = rows[depth - 1];
+            int[] row = rows[depth];
+            int n = query.length;
+            int limit = k + 1;
+            int lo = Math.max(1, depth - k);
+            int hi = Math.min(n, depth + k);
+            char label = labels[node];
+            row[0] = Math.min(depth, limit);
+            if (lo > 1) {
+                row[lo - 1] = limit;
+            }
+            int best = row[0];
+            for (int i = lo; i <= hi; i++) {
+                int substitute = previous[i - 1] + (query[i - 1] == label ? 0 : 1);
+                int cell = Math.min(Math.min(substitute, Math.min(previous[i], row[i - 1]) + 1), limit);
+                row[i] = cell;
+                best = Math.min(best, cell);
+            }
+            if (hi < n) {
+                row[hi + 1] = limit;
+            }
+
+            int distance = hi == n ? row[n] : limit;
+            if (distance <= k) {
+                int[] list = postings[node];
+                for (int p = 0; p < postingCounts[node]; p++) {
+                    int entry = list[p] / FIELD_COUNT;
+                    int packed = distance * FIELD_COUNT + list[p] % FIELD_COUNT;
+                    if (packed < rank[entry]) {
+                        rank[entry] = packed;
+                    }
+                }
+            }
+            // Every longer term extends this row, and no cell can decrease from here
+            if (best <= k) {
+                for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+                    walk(child, depth + 1, query, k, rows, rank);
+                }
+            }
+        }
+    }
+}
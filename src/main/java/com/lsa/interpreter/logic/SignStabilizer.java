@@ -0,0 +1,180 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.RingBuffer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Collapses per-frame results into one event per held sign. Each frame casts a vote (a sign, or
+// none when nothing passed the confidence threshold) into a sliding window. A sign becomes active
+// once it holds a clear majority of the window and stays active until its share drops below a
+// lower exit level, so a few noisy frames neither start nor end a sign. When the sign ends, a
+// single result is emitted covering its first to last frame, with the peak confidence seen.
+// Not thread-safe: fed from the frame processing thread.
+public class SignStabilizer {
+    private static final int DEFAULT_WINDOW = 9;
+    private static final int DEFAULT_ENTER_VOTES = 6;
+    private static final int DEFAULT_EXIT_VOTES = 3;
+
+    private final RingBuffer<Vote> window;
+    private final Map<String, Integer> counts;
+    private final int enterVotes;
+    private final int exitVotes;
+    private final SignEventListener listener;
+    // Maps System.nanoTime() frame stamps onto wall-clock time for the emitted results
+    private long epochOffsetNanos;
+    private ActiveSign active;
+
+    public SignStabilizer(SignEventListener listener) {
+        this(DEFAULT_WINDOW, DEFAULT_ENTER_VOTES, DEFAULT_EXIT_VOTES, listener);
+    }
+
+    public SignStabilizer(int windowSize, int enterVotes, int exitVotes, SignEventListener listener) {
+        if (exitVotes >= enterVotes || enterVotes > windowSize || exitVotes < 1) {
+            throw new IllegalArgumentException(
+                "Require 1 <= exitVotes < enterVotes <= windowSize, got " + exitVotes + "/" + enterVotes + "/" + windowSize);
+        }
+        this.window = new RingBuffer<>(windowSize);
+        this.counts = new HashMap<>();
+        this.enterVotes = enterVotes;
+        this.exitVotes = exitVotes;
+        this.listener = listener;
+        this.epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    }
+
+    public void offer(String sign, double confidence, long timestampNanos) {
+        Vote evicted = window.add(new Vote(sign, confidence, timestampNanos));
+        if (sign != null) {
+            counts.merge(sign, 1, Integer::sum);
+        }
+        if (evicted != null && evicted.sign != null) {
+            counts.computeIfPresent(evicted.sign, (s, c) -> c > 1 ? c - 1 : null);
+        }
+
+        if (active != null) {
+            if (active.sign.equals(sign)) {
+                active.extend(confidence, timestampNanos);
+            }
+            if (counts.getOrDefault(active.sign, 0) < exitVotes) {
+                emit();
+            }
+        }
+        if (active == null) {
+            tryEnter();
+        }
+    }
+
+    // A frame with no result above the confidence threshold
+    public void offerNone(long timestampNanos) {
+        offer(null, 0.0, timestampNanos);
+    }
+
+    // Ends the active sign immediately, e.g. when detection stops
+    public void flush() {
+        if (active != null) {
+            emit();
+        }
+        window.clear();
+        counts.clear();
+    }
+
+    // Drops all state without emitting the active sign
+    public void reset() {
+        active = null;
+        window.clear();
+        counts.clear();
+    }
+
+    // Timestamps offered from now on are nanoseconds since this wall-clock instant (e.g. media time)
+    public void setClockOrigin(long epochMillis) {
+        this.epochOffsetNanos = epochMillis * 1_000_000L;
+    }
+
+    public String getActiveSign() {
+        return active != null ? active.sign : null;
+    }
+
+    private void tryEnter() {
+        String leader = null;
+        int leaderVotes = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > leaderVotes) {
+                leader = entry.getKey();
+                leaderVotes = entry.getValue();
+            }
+        }
+        if (leaderVotes < enterVotes) {
+            return;
+        }
+
+        // The sign started with its oldest vote still in the window
+        ActiveSign sign = null;
+        for (int i = window.size() - 1; i >= 0; i--) {
+            Vote vote = window.get(i);
+            if (!leader.equals(vote.sign)) {
+                continue;
+            }
+            if (sign == null) {
+                sign = new ActiveSign(leader, vote.confidence, vote.timestampNanos);
+            } else {
+                sign.extend(vote.confidence, vote.timestampNanos);
+            }
+        }
+        active = sign;
+    }
+
+    private void emit() {
+        ActiveSign ended = active;
+        active = null;
+        listener.onSignEvent(new FusionAI.FusionResult(
+            ended.sign,
+            ended.peakConfidence,
+            toEpochMillis(ended.startNanos),
+            toEpochMillis(ended.endNanos),
+            ended.frameCount
+        ));
+    }
+
+    private long toEpochMillis(long nanos) {
+        return (nanos + epochOffsetNanos) / 1_000_000L;
+    }
+
+    public interface SignEventListener {
+        void onSignEvent(FusionAI.FusionResult event);
+    }
+
+    private static final class Vote {
+        private final String sign;
+        private final double confidence;
+        private final long timestampNanos;
+
+        private Vote(String sign, double confidence, long timestampNanos) {
+            this.sign = sign;
+            this.confidence = confidence;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+
+    private static final class ActiveSign {
+        private final String sign;
+        private final long startNanos;
+        private long endNanos;
+        private double peakConfidence;
+        private int frameCount;
+
+        private ActiveSign(String sign, double confidence, long timestampNanos) {
+            this.sign = sign;
+            this.startNanos = timestampNanos;
+            this.endNanos = timestampNanos;
+            this.peakConfidence = confidence;
+            this.frameCount = 1;
+        }
+
+        private void extend(double confidence, long timestampNanos) {
+            // A late vote for an earlier frame must not pull the end back
+            endNanos = Math.max(endNanos, timestampNanos);
+            peakConfidence = Math.max(peakConfidence, confidence);
+            frameCount++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.lsa.interpreter.logic;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+final class SimdDistanceKernel implements DistanceKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void blockDistances(float[] query, float[] templates, int offset, int dimension, float[] out) {
+        // One lane per template: broadcast each query component, no horizontal reductions needed
+        int lanes = SPECIES.length();
+        FloatVector acc = FloatVector.zero(SPECIES);
+        for (int d = 0; d < dimension; d++) {
+            FloatVector t = FloatVector.fromArray(SPECIES, templates, offset + d * lanes);
+            FloatVector diff = t.sub(query[d]);
+            acc = diff.fma(diff, acc);
+        }
+        acc.intoArray(out, 0);
+    }
+
+    @Override
+    public int laneCount() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public String name() {
+        return "simd-" + SPECIES.vectorBitSize();
+    }
+}
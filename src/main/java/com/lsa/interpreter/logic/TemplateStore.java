@@ -0,0 +1,312 @@
+package com.lsa.interpreter.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+public class TemplateStore {
+    private static final Logger logger = LoggerFactory.getLogger(TemplateStore.class);
+    private static final Path DEFAULT_STORE_FILE = Paths.get(System.getProperty("user.home"), ".lsa-interpreter", "templates.bin");
+    private static final byte RECORD_TEMPLATE = 1;
+    private static final byte RECORD_REMOVE = 2;
+    private static final int HEADER_SIZE = 1 + 4 + 4; // type, payload length, crc
+    private static final double COMPACTION_DEAD_RATIO = 0.5;
+    private static final int COMPACTION_MIN_RECORDS = 256;
+
+    private final Path storeFile;
+    private final ExecutorService writer;
+    private FileChannel channel;
+    // Template records per sign in the file, so a removal can move them from live to dead; only
+    // touched on the writer thread, and filled by the first scan of the file
+    private final Map<String, Integer> liveCounts;
+    private boolean counted;
+    private int liveRecords;
+    private int deadRecords;
+
+    public TemplateStore() {
+        this(DEFAULT_STORE_FILE);
+    }
+
+    public TemplateStore(Path storeFile) {
+        this.storeFile = storeFile;
+        this.liveCounts = new HashMap<>();
+        // All disk I/O happens on one background thread, in submission order
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "template-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        logger.info("TemplateStore initialized at {}", storeFile);
+    }
+
+    public CompletableFuture<Void> load(SignClassifier classifier) {
+        return CompletableFuture.runAsync(() -> {
+            Map<String, List<float[]>> templates = readTemplates();
+            int count = 0;
+            for (Map.Entry<String, List<float[]>> entry : templates.entrySet()) {
+                for (float[] features : entry.getValue()) {
+                    classifier.addTemplate(entry.getKey(), features);
+                    count++;
+                }
+            }
+            logger.info("Loaded {} templates for {} signs", count, templates.size());
+            try {
+                compactIfNeeded();
+            } catch (IOException e) {
+                logger.error("Failed to compact template store", e);
+            }
+        }, writer);
+    }
+
+    public CompletableFuture<Void> append(String sign, List<float[]> templates) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                ensureCounted();
+                FileChannel out = openChannel();
+                for (float[] features : templates) {
+                    writeRecord(out, RECORD_TEMPLATE, encodeTemplate(sign, features));
+                }
+                liveCounts.merge(sign, templates.size(), Integer::sum);
+                liveRecords += templates.size();
+                channel.force(false);
+                compactIfNeeded();
+            } catch (IOException e) {
+                logger.error("Failed to append templates for sign {}", sign, e);
+                throw new RuntimeException("Failed to append templates", e);
+            }
+        }, writer);
+    }
+
+    public CompletableFuture<Void> remove(String sign) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                ensureCounted();
+                writeRecord(openChannel(), RECORD_REMOVE, encodeName(sign));
+                // The sign's templates and the removal record itself are now dead weight
+                Integer removed = liveCounts.remove(sign);
+                int removedCount = removed != null ? removed : 0;
+                liveRecords -= removedCount;
+                deadRecords += removedCount + 1;
+                channel.force(false);
+                compactIfNeeded();
+            } catch (IOException e) {
+                logger.error("Failed to remove templates for sign {}", sign, e);
+                throw new RuntimeException("Failed to remove templates", e);
+            }
+        }, writer);
+    }
+
+    public CompletableFuture<Void> compact() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                rewrite();
+            } catch (IOException e) {
+                logger.error("Failed to compact template store", e);
+                throw new RuntimeException("Failed to compact template store", e);
+            }
+        }, writer);
+    }
+
+    public void close() {
+        writer.submit(() -> {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                logger.error("Error closing template store", e);
+            }
+        });
+        writer.shutdown();
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(storeFile.getParent());
+            channel = FileChannel.open(storeFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private static void writeRecord(FileChannel out, byte type, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.put(type).putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    // Writes before any load still need the per-sign counts of what is already in the file
+    private void ensureCounted() {
+        if (!counted) {
+            readTemplates();
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        int total = liveRecords + deadRecords;
+        if (total >= COMPACTION_MIN_RECORDS && deadRecords >= total * COMPACTION_DEAD_RATIO) {
+            rewrite();
+        }
+    }
+
+    private void rewrite() throws IOException {
+        Map<String, List<float[]>> templates = readTemplates();
+
+        // Write the live set to a side file and swap it in atomically
+        Path compacted = storeFile.resolveSibling(storeFile.getFileName() + ".compact");
+        int count = 0;
+        try (FileChannel out = FileChannel.open(compacted,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, List<float[]>> entry : templates.entrySet()) {
+                for (float[] features : entry.getValue()) {
+                    writeRecord(out, RECORD_TEMPLATE, encodeTemplate(entry.getKey(), features));
+                    count++;
+                }
+            }
+            out.force(true);
+        }
+
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        Files.move(compacted, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // liveCounts already match: readTemplates just counted this live set
+        liveRecords = count;
+        deadRecords = 0;
+        logger.info("Template store compacted to {} records", count);
+    }
+
+    private Map<String, List<float[]>> readTemplates() {
+        Map<String, List<float[]>> templates = new LinkedHashMap<>();
+        liveCounts.clear();
+        counted = true;
+        if (!Files.exists(storeFile)) {
+            liveRecords = 0;
+            deadRecords = 0;
+            return templates;
+        }
+
+        int live = 0;
+        int dead = 0;
+        try (FileChannel in = FileChannel.open(storeFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long validLength = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (true) {
+                header.clear();
+                if (!readFully(in, header)) {
+                    if (header.position() > 0) {
+                        logger.warn("Truncated record at end of template store, ignoring tail");
+                    }
+                    break;
+                }
+                header.flip();
+                byte type = header.get();
+                int length = header.getInt();
+                int checksum = header.getInt();
+
+                if (length < 0 || length > in.size()) {
+                    logger.warn("Corrupt record in template store, ignoring tail");
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(in, payload)) {
+                    logger.warn("Truncated record at end of template store, ignoring tail");
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Corrupt record in template store, ignoring tail");
+                    break;
+                }
+
+                payload.flip();
+                if (type == RECORD_TEMPLATE) {
+                    String sign = readString(payload);
+                    float[] features = new float[payload.getInt()];
+                    payload.asFloatBuffer().get(features);
+                    templates.computeIfAbsent(sign, s -> new ArrayList<>()).add(features);
+                    live++;
+                } else if (type == RECORD_REMOVE) {
+                    List<float[]> removed = templates.remove(readString(payload));
+                    int removedCount = removed != null ? removed.size() : 0;
+                    live -= removedCount;
+                    dead += removedCount + 1;
+                }
+                validLength = in.position();
+            }
+
+            // Drop a torn tail so later appends stay readable
+            if (validLength < in.size()) {
+                in.truncate(validLength);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read template store", e);
+        }
+
+        for (Map.Entry<String, List<float[]>> entry : templates.entrySet()) {
+            liveCounts.put(entry.getKey(), entry.getValue().size());
+        }
+        liveRecords = live;
+        deadRecords = dead;
+        return templates;
+    }
+
+    private static boolean readFully(FileChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encodeTemplate(String sign, float[] features) {
+        byte[] name = sign.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + name.length + 4 + features.length * 4);
+        buffer.putInt(name.length).put(name).putInt(features.length);
+        for (float feature : features) {
+            buffer.putFloat(feature);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] encodeName(String sign) {
+        byte[] name = sign.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + name.length).putInt(name.length).put(name).array();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package com.lsa.interpreter.logic;
+
+import com.lsa.interpreter.util.RingBuffer;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+// Pairs each gesture observation with the face observation nearest to it in time, so face analysis
+// can run at a lower rate (or miss frames) without gestures being fused with stale or arbitrary
+// faces. A gesture is held until either a face at or after its timestamp has been seen (nothing
+// closer can arrive) or the alignment tolerance has passed, then emitted with its match or alone.
+// Frames without a gesture queue behind pending gestures too, so everything comes out in frame order.
+// Not thread-safe: fed and drained from the frame processing thread.
+public class TemporalFusionWindow {
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final long DEFAULT_TOLERANCE_MS = 150;
+
+    private final RingBuffer<Observation> faces;
+    // Gestures and empty frames (null value) in frame order
+    private final ArrayDeque<Observation> pendingGestures;
+    private final int capacity;
+    private volatile long toleranceNanos;
+
+    public TemporalFusionWindow() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TemporalFusionWindow(int capacity) {
+        this.faces = new RingBuffer<>(capacity);
+        this.pendingGestures = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+        this.toleranceNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("lsa.fusion.tolerance.ms", DEFAULT_TOLERANCE_MS));
+    }
+
+    public void addGesture(Observation gesture) {
+        pendingGestures.addLast(gesture);
+    }
+
+    // A frame without a gesture; it needs no face, so it is emitted as soon as the gestures before it are
+    public void addEmptyFrame(long timestampNanos, long frameSequence) {
+        pendingGestures.addLast(new Observation(null, 0.0, timestampNanos, frameSequence));
+    }
+
+    public void addFace(Observation face) {
+        faces.add(face);
+    }
+
+    // Emits every pending gesture whose best face match is settled as of nowNanos, and the empty
+    // frames between them, oldest first
+    public void drain(long nowNanos, AlignedHandler handler) {
+        while (!pendingGestures.isEmpty()) {
+            Observation gesture = pendingGestures.peekFirst();
+            if (gesture.value == null) {
+                pendingGestures.removeFirst();
+                handler.onAligned(gesture, null);
+                continue;
+            }
+            boolean expired = nowNanos - gesture.timestampNanos > toleranceNanos;
+            boolean faceSinceGesture = !faces.isEmpty() && faces.get(0).timestampNanos >= gesture.timestampNanos;
+            boolean overflowing = pendingGestures.size() > capacity;
+            if (!expired && !faceSinceGesture && !overflowing) {
+                // Later gestures are newer still, so none of them can be settled either
+                return;
+            }
+            pendingGestures.removeFirst();
+            handler.onAligned(gesture, nearestFace(gesture.timestampNanos));
+        }
+    }
+
+    private Observation nearestFace(long timestampNanos) {
+        Observation best = null;
+        long bestDistance = Long.MAX_VALUE;
+        for (int i = 0; i < faces.size(); i++) {
+            Observation face = faces.get(i);
+            long distance = Math.abs(face.timestampNanos - timestampNanos);
+            if (distance > toleranceNanos) {
+                if (face.timestampNanos < timestampNanos) {
+                    // Newest first: everything after this is even older
+                    break;
+                }
+                continue;
+            }
+            if (distance < bestDistance || (distance == bestDistance && face.confidence > best.confidence)) {
+                best = face;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    public void setAlignmentTolerance(long tolerance, TimeUnit unit) {
+        this.toleranceNanos = unit.toNanos(tolerance);
+    }
+
+    public long getAlignmentToleranceNanos() {
+        return toleranceNanos;
+    }
+
+    public int getPendingCount() {
+        return pendingGestures.size();
+    }
+
+    public void clear() {
+        faces.clear();
+        pendingGestures.clear();
+    }
+
+    public interface AlignedHandler {
+        // face is null when no face observation lies within the tolerance of the gesture; gesture has a
+        // null value for a frame without one
+        void onAligned(Observation gesture, Observation face);
+    }
+
+    public static class Observation {
+        private final String value;
+        private final double confidence;
+        private final long timestampNanos;
+        private final long frameSequence;
+
+        public Observation(String value, double confidence, long timestampNanos, long frameSequence) {
+            this.value = value;
+            this.confidence = confidence;
+            this.timestampNanos = timestampNanos;
+            this.frameSequence = frameSequence;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+
+        public long getTimestampNanos() {
+            return timestampNanos;
+        }
+
+        public long getFrameSequence() {
+            return frameSequence;
+        }
+    }
+}
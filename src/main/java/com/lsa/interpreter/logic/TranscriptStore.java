@@ -0,0 +1,426 @@
+package com.lsa.interpreter.logic;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class TranscriptStore implements FusionAI.FusionListener {
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptStore.class);
+    private static final Path DEFAULT_BASE_DIRECTORY = Paths.get(System.getProperty("user.home"), ".lsa-interpreter", "transcripts");
+    private static final DateTimeFormatter SESSION_ID_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int SEGMENT_MAGIC = 0x4C534154; // "LSAT"
+    private static final long SEGMENT_SIZE_LIMIT = 16L * 1024 * 1024;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long INDEX_INTERVAL_MS = 1000;
+    private static final long FLUSH_INTERVAL_MS = 500;
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 8; // timestamp, segment, offset
+    private static final long SRT_DEFAULT_DURATION_MS = 2000;
+
+    private final Path sessionDirectory;
+    private final String sessionId;
+    private final ByteBuffer writeBuffer;
+    private final ByteBuffer indexBuffer;
+    private final ScheduledExecutorService flusher;
+    private final int segmentHeaderSize;
+    private FileChannel segmentChannel;
+    private FileChannel indexChannel;
+    private int segmentNumber;
+    private long segmentPosition;
+    private long lastTimestamp;
+    private long lastIndexedTimestamp;
+    private long sessionStart;
+
+    // Sparse time index: one entry per INDEX_INTERVAL_MS and per segment start
+    private long[] indexTimestamps;
+    private int[] indexSegments;
+    private long[] indexOffsets;
+    private int indexSize;
+
+    public TranscriptStore() {
+        this(DEFAULT_BASE_DIRECTORY, LocalDateTime.now().format(SESSION_ID_FORMATTER));
+    }
+
+    public TranscriptStore(Path baseDirectory, String sessionId) {
+        this.sessionId = sessionId;
+        this.sessionDirectory = baseDirectory.resolve(sessionId);
+        this.writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        this.indexBuffer = ByteBuffer.allocateDirect(INDEX_ENTRY_SIZE * 256);
+        this.indexTimestamps = new long[1024];
+        this.indexSegments = new int[1024];
+        this.indexOffsets = new long[1024];
+        this.lastIndexedTimestamp = Long.MIN_VALUE;
+        this.segmentHeaderSize = 4 + 2 + sessionId.getBytes(StandardCharsets.UTF_8).length;
+
+        try {
+            Files.createDirectories(sessionDirectory);
+            loadIndex();
+            openNextSegment();
+        } catch (IOException e) {
+            logger.error("Failed to open transcript session {}", sessionId, e);
+            throw new RuntimeException("Failed to open transcript session", e);
+        }
+
+        // Flush batched records periodically so a quiet session still reaches disk
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transcript-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        logger.info("TranscriptStore initialized for session {} in {}", sessionId, sessionDirectory);
+    }
+
+    @Override
+    public void onDetectionResult(FusionAI.FusionResult result) {
+        // Called on an event-bus subscriber thread, never on the detection thread
+        append(result.getStartTime(), result.getDetectedSign(), result.getConfidence());
+    }
+
+    public synchronized void append(long timestamp, String sign, double confidence) {
+        try {
+            // Keep timestamps monotonic so the index can be binary searched
+            timestamp = Math.max(timestamp, lastTimestamp);
+            lastTimestamp = timestamp;
+            if (sessionStart == 0) {
+                sessionStart = timestamp;
+            }
+
+            byte[] signBytes = sign.getBytes(StandardCharsets.UTF_8);
+            int recordSize = 4 + 8 + 8 + 2 + signBytes.length;
+            if (segmentPosition + recordSize > SEGMENT_SIZE_LIMIT) {
+                openNextSegment();
+            }
+            if (timestamp - lastIndexedTimestamp >= INDEX_INTERVAL_MS || segmentPosition == segmentHeaderSize) {
+                addIndexEntry(timestamp, segmentNumber, segmentPosition);
+            }
+
+            if (writeBuffer.remaining() < recordSize) {
+                flushWriteBuffer();
+            }
+            writeBuffer.putInt(recordSize)
+                .putLong(timestamp)
+                .putDouble(confidence)
+                .putShort((short) signBytes.length)
+                .put(signBytes);
+            segmentPosition += recordSize;
+        } catch (IOException e) {
+            logger.error("Failed to append transcript record", e);
+        }
+    }
+
+    public synchronized void flush() {
+        try {
+            flushWriteBuffer();
+            flushIndexBuffer();
+        } catch (IOException e) {
+            logger.error("Failed to flush transcript", e);
+        }
+    }
+
+    public synchronized void close() {
+        flusher.shutdown();
+        flush();
+        try {
+            segmentChannel.close();
+            indexChannel.close();
+        } catch (IOException e) {
+            logger.error("Error closing transcript store", e);
+        }
+        logger.info("Transcript session {} closed", sessionId);
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getSessionStart() {
+        return sessionStart;
+    }
+
+    public void read(long fromTimestamp, long toTimestamp, Consumer<TranscriptEntry> consumer) throws IOException {
+        int startSegment;
+        long startOffset;
+        int lastSegment;
+        synchronized (this) {
+            // Make everything appended so far visible to the reader
+            flush();
+            int entry = findIndexEntry(fromTimestamp);
+            startSegment = entry >= 0 ? indexSegments[entry] : firstSegment();
+            startOffset = entry >= 0 ? indexOffsets[entry] : segmentHeaderSize;
+            lastSegment = segmentNumber;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        for (int segment = startSegment; segment <= lastSegment; segment++) {
+            Path path = segmentPath(segment);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                channel.position(segment == startSegment ? startOffset : segmentHeaderSize);
+                buffer.clear();
+                while (channel.read(buffer) > 0 || buffer.position() > 0) {
+                    buffer.flip();
+                    while (buffer.remaining() >= 4 && buffer.remaining() >= buffer.getInt(buffer.position())) {
+                        buffer.getInt();
+                        long timestamp = buffer.getLong();
+                        double confidence = buffer.getDouble();
+                        byte[] signBytes = new byte[buffer.getShort()];
+                        buffer.get(signBytes);
+
+                        if (timestamp > toTimestamp) {
+                            return;
+                        }
+                        if (timestamp >= fromTimestamp) {
+                            consumer.accept(new TranscriptEntry(sessionId, timestamp,
+                                new String(signBytes, StandardCharsets.UTF_8), confidence));
+                        }
+                    }
+                    boolean partial = buffer.hasRemaining();
+                    buffer.compact();
+                    if (partial && channel.position() == channel.size()) {
+                        // Torn record at the end of the segment
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    public void exportJsonl(long fromTimestamp, long toTimestamp, Writer out) throws IOException {
+        JsonGenerator generator = new JsonFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // One JSON object per line
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+        IOException[] failure = new IOException[1];
+        read(fromTimestamp, toTimestamp, entry -> {
+            if (failure[0] != null) {
+                return;
+            }
+            try {
+                generator.writeStartObject();
+                generator.writeStringField("session", entry.getSessionId());
+                generator.writeNumberField("timestamp", entry.getTimestamp());
+                generator.writeStringField("sign", entry.getSign());
+                generator.writeNumberField("confidence", entry.getConfidence());
+                generator.writeEndObject();
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        generator.writeRaw('\n');
+        generator.close();
+        out.flush();
+    }
+
+    public void exportSrt(long fromTimestamp, long toTimestamp, Writer out) throws IOException {
+        long origin = sessionStart;
+        IOException[] failure = new IOException[1];
+        TranscriptEntry[] previous = new TranscriptEntry[1];
+        int[] counter = new int[1];
+
+        // Each cue lasts until the next sign starts, capped at the default duration
+        Consumer<TranscriptEntry> writeCue = entry -> {
+            TranscriptEntry cue = previous[0];
+            previous[0] = entry;
+            if (cue == null || failure[0] != null) {
+                return;
+            }
+            long end = entry != null
+                ? Math.min(entry.getTimestamp(), cue.getTimestamp() + SRT_DEFAULT_DURATION_MS)
+                : cue.getTimestamp() + SRT_DEFAULT_DURATION_MS;
+            try {
+                out.write(String.format("%d%n%s --> %s%n%s%n%n",
+                    ++counter[0],
+                    formatSrtTime(cue.getTimestamp() - origin),
+                    formatSrtTime(end - origin),
+                    cue.getSign()));
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        };
+
+        read(fromTimestamp, toTimestamp, writeCue);
+        writeCue.accept(null);
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        out.flush();
+    }
+
+    private static String formatSrtTime(long millis) {
+        millis = Math.max(0, millis);
+        return String.format("%02d:%02d:%02d,%03d",
+            millis / 3_600_000, millis / 60_000 % 60, millis / 1000 % 60, millis % 1000);
+    }
+
+    private int findIndexEntry(long timestamp) {
+        // Last index entry at or before the timestamp
+        int low = 0;
+        int high = indexSize - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexTimestamps[mid] <= timestamp) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private int firstSegment() {
+        return indexSize > 0 ? indexSegments[0] : segmentNumber;
+    }
+
+    private void addIndexEntry(long timestamp, int segment, long offset) throws IOException {
+        addIndexEntryInMemory(timestamp, segment, offset);
+        lastIndexedTimestamp = timestamp;
+        if (indexBuffer.remaining() < INDEX_ENTRY_SIZE) {
+            flushIndexBuffer();
+        }
+        indexBuffer.putLong(timestamp).putInt(segment).putLong(offset);
+    }
+
+    private void loadIndex() throws IOException {
+        Path indexPath = sessionDirectory.resolve("index.bin");
+        if (Files.exists(indexPath)) {
+            // Resuming a session: reload the sparse index and continue after the last segment
+            ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+            while (entries.remaining() >= INDEX_ENTRY_SIZE) {
+                long timestamp = entries.getLong();
+                int segment = entries.getInt();
+                long offset = entries.getLong();
+                addIndexEntryInMemory(timestamp, segment, offset);
+            }
+            if (indexSize > 0) {
+                sessionStart = indexTimestamps[0];
+                lastTimestamp = indexTimestamps[indexSize - 1];
+            }
+        }
+        indexChannel = FileChannel.open(indexPath,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentNumber = lastSegmentOnDisk();
+    }
+
+    // The index can lag the segment files (a session that never wrote a record, or a crash before
+    // the index was flushed), so the next segment number comes from the files themselves
+    private int lastSegmentOnDisk() throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(sessionDirectory, "segment-*.log")) {
+            for (Path path : segments) {
+                String name = path.getFileName().toString();
+                try {
+                    last = Math.max(last, Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file {} in transcript session {}", name, sessionId);
+                }
+            }
+        }
+        return last;
+    }
+
+    private void addIndexEntryInMemory(long timestamp, int segment, long offset) {
+        if (indexSize == indexTimestamps.length) {
+            indexTimestamps = Arrays.copyOf(indexTimestamps, indexSize * 2);
+            indexSegments = Arrays.copyOf(indexSegments, indexSize * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+        }
+        indexTimestamps[indexSize] = timestamp;
+        indexSegments[indexSize] = segment;
+        indexOffsets[indexSize] = offset;
+        indexSize++;
+    }
+
+    private void openNextSegment() throws IOException {
+        if (segmentChannel != null) {
+            flushWriteBuffer();
+            segmentChannel.close();
+        }
+        segmentNumber++;
+        segmentChannel = FileChannel.open(segmentPath(segmentNumber),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        // Segment header: magic, session id
+        byte[] session = sessionId.getBytes(StandardCharsets.UTF_8);
+        writeBuffer.putInt(SEGMENT_MAGIC).putShort((short) session.length).put(session);
+        segmentPosition = segmentHeaderSize;
+    }
+
+    private Path segmentPath(int segment) {
+        return sessionDirectory.resolve(String.format("segment-%06d.log", segment));
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            segmentChannel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private void flushIndexBuffer() throws IOException {
+        indexBuffer.flip();
+        while (indexBuffer.hasRemaining()) {
+            indexChannel.write(indexBuffer);
+        }
+        indexBuffer.clear();
+    }
+
+    public static class TranscriptEntry {
+        private final String sessionId;
+        private final long timestamp;
+        private final String sign;
+        private final double confidence;
+
+        public TranscriptEntry(String sessionId, long timestamp, String sign, double confidence) {
+            this.sessionId = sessionId;
+            this.timestamp = timestamp;
+            this.sign = sign;
+            this.confidence = confidence;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getSign() {
+            return sign;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.lsa.interpreter.logic;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.lsa.interpreter.util.ErrorLogger;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.opencv.core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Interprets a recorded video by splitting it at keyframes into segments that are decoded and
+// processed in parallel, each by its own FusionAI. Every segment also decodes a short overlap
+// before its start, so the temporal state (feature window, fusion window, stabilizer) is warmed
+// up exactly as it would be in a single pass, and keeps decoding past its end while a sign is
+// still held. A segment only keeps the sign events that start inside it, so each event is
+// produced by exactly one segment. The stitched events are then replayed in order through one
+// GrammarProcessor, giving the grammar the same cross-segment context as sequential processing.
+// All times are media time in milliseconds from the start of the video.
+public class VideoSegmentProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(VideoSegmentProcessor.class);
+    private static final long DEFAULT_SEGMENT_SECONDS = 60;
+    private static final long DEFAULT_OVERLAP_MS = 2000;
+    // A sign still held this long past the segment end is cut; longer than any real sign
+    private static final long MAX_OVERHANG_MS = 10_000;
+    private static final long WORKER_SHUTDOWN_SECONDS = 30;
+
+    private final TemplateStore templateStore;
+    private final int threads;
+    private final long segmentMicros;
+    private final long overlapMicros;
+
+    public VideoSegmentProcessor(TemplateStore templateStore) {
+        this(templateStore,
+            Integer.getInteger("lsa.video.threads", Runtime.getRuntime().availableProcessors()),
+            Long.getLong("lsa.video.segment.seconds", DEFAULT_SEGMENT_SECONDS), TimeUnit.SECONDS);
+    }
+
+    public VideoSegmentProcessor(TemplateStore templateStore, int threads, long segmentLength, TimeUnit unit) {
+        if (threads < 1 || segmentLength <= 0) {
+            throw new IllegalArgumentException("Require threads >= 1 and a positive segment length");
+        }
+        this.templateStore = templateStore;
+        this.threads = threads;
+        this.segmentMicros = unit.toMicros(segmentLength);
+        this.overlapMicros = TimeUnit.MILLISECONDS.toMicros(Long.getLong("lsa.video.overlap.ms", DEFAULT_OVERLAP_MS));
+    }
+
+    // Splits the video at keyframes and processes the segments in parallel
+    public Result process(Path video) throws IOException {
+        long start = System.nanoTime();
+        List<Segment> segments = planSegments(video);
+        logger.info("Processing {} as {} segments on {} threads", video, segments.size(), Math.min(threads, segments.size()));
+        return run(video, segments, start);
+    }
+
+    // Single pass over the whole video; the reference that process() must match
+    public Result processSequential(Path video) throws IOException {
+        return run(video, Collections.singletonList(new Segment(0, 0, Long.MAX_VALUE)), System.nanoTime());
+    }
+
+    private Result run(Path video, List<Segment> segments, long startNanos) throws IOException {
+        int workerCount = Math.min(threads, segments.size());
+        BlockingQueue<FusionAI> workers = new ArrayBlockingQueue<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(createWorker(i));
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "video-segment-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<List<FusionAI.FusionResult>>> futures = new ArrayList<>(segments.size());
+            for (Segment segment : segments) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    FusionAI worker = workers.remove();
+                    try {
+                        return processSegment(video, segment, worker);
+                    } finally {
+                        workers.add(worker);
+                    }
+                }, executor));
+            }
+
+            List<FusionAI.FusionResult> signs = new ArrayList<>();
+            for (CompletableFuture<List<FusionAI.FusionResult>> future : futures) {
+                signs.addAll(future.join());
+            }
+            signs.sort(Comparator.comparingLong(FusionAI.FusionResult::getStartTime));
+            return new Result(signs, applyGrammar(signs), segments.size(), System.nanoTime() - startNanos);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SegmentException) {
+                throw ((SegmentException) cause).getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+            closeWorkers(executor, workers);
+        }
+    }
+
+    // After a failed segment the others are interrupted and stop at their next frame; each worker
+    // is back in the queue once its task has ended
+    private void closeWorkers(ExecutorService executor, BlockingQueue<FusionAI> workers) {
+        try {
+            if (!executor.awaitTermination(WORKER_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Segment workers still busy after {} s; leaving them unclosed", WORKER_SHUTDOWN_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        FusionAI worker;
+        while ((worker = workers.poll()) != null) {
+            worker.close();
+        }
+    }
+
+    private FusionAI createWorker(int index) {
+        FusionAI worker = new FusionAI("video-worker-" + index);
+        // Adaptive quality depends on machine load; offline results must not
+        worker.getQualityController().pin(0);
+        // Frame timestamps are media time, so results come out in milliseconds from the start
+        worker.setClockOrigin(0);
+        worker.setAnnotationsEnabled(false);
+        if (templateStore != null) {
+            templateStore.load(worker.getSignClassifier()).join();
+        }
+        return worker;
+    }
+
+    // Replays the stitched events through one grammar so context carries across segment boundaries
+    private List<FusionAI.FusionResult> applyGrammar(List<FusionAI.FusionResult> signs) {
+        GrammarProcessor grammar = new GrammarProcessor();
+        List<FusionAI.FusionResult> processed = new ArrayList<>(signs.size());
+        for (FusionAI.FusionResult sign : signs) {
+            processed.add(grammar.processResult(sign));
+        }
+        return processed;
+    }
+
+    private List<FusionAI.FusionResult> processSegment(Path video, Segment segment, FusionAI fusionAI) {
+        List<FusionAI.FusionResult> owned = new ArrayList<>();
+        long ownedFromMillis = TimeUnit.MICROSECONDS.toMillis(segment.startMicros);
+        long ownedToMillis = segment.endMicros == Long.MAX_VALUE
+            ? Long.MAX_VALUE : TimeUnit.MICROSECONDS.toMillis(segment.endMicros);
+        SignStabilizer.SignEventListener collector = event -> {
+            if (event.getStartTime() >= ownedFromMillis && event.getStartTime() < ownedToMillis) {
+                owned.add(event);
+            }
+        };
+
+        long decodeFrom = Math.max(0, segment.startMicros - overlapMicros);
+        long decodeTo = segment.endMicros == Long.MAX_VALUE ? Long.MAX_VALUE : segment.endMicros + overlapMicros;
+        long hardStop = segment.endMicros == Long.MAX_VALUE
+            ? Long.MAX_VALUE : segment.endMicros + TimeUnit.MILLISECONDS.toMicros(MAX_OVERHANG_MS);
+
+        fusionAI.reset();
+        fusionAI.addSignEventListener(collector);
+        OpenCVFrameConverter.ToOrgOpenCvCoreMat converter = new OpenCVFrameConverter.ToOrgOpenCvCoreMat();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile())) {
+            grabber.start();
+            if (decodeFrom > 0) {
+                // Lands on the keyframe at or before decodeFrom; earlier frames are skipped below
+                grabber.setTimestamp(decodeFrom);
+            }
+            long frames = 0;
+            Frame frame;
+            while ((frame = grabber.grabImage()) != null && !Thread.currentThread().isInterrupted()) {
+                long timestamp = frame.timestamp;
+                if (timestamp < decodeFrom) {
+                    continue;
+                }
+                if (timestamp >= hardStop || (timestamp >= decodeTo && fusionAI.getActiveSign() == null)) {
+                    break;
+                }
+                // The converted Mat wraps the grabber's buffer and is reused by the next grab
+                Mat mat = converter.convert(frame);
+                fusionAI.processFrame(mat, ++frames, TimeUnit.MICROSECONDS.toNanos(timestamp));
+            }
+            // Ends a sign held at the end of the video (or cut at the hard stop)
+            fusionAI.flush();
+            logger.debug("Segment {} processed {} frames, {} sign events", segment.index, frames, owned.size());
+            return owned;
+        } catch (IOException e) {
+            ErrorLogger.getInstance().logError("VideoSegmentProcessor",
+                "Error processing segment " + segment.index + " of " + video, e);
+            throw new SegmentException(e);
+        } finally {
+            fusionAI.removeSignEventListener(collector);
+        }
+    }
+
+    // Segment boundaries are the first keyframes at or after each multiple of the segment length,
+    // so every segment starts on a frame that decodes without references into the previous one
+    private List<Segment> planSegments(Path video) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile())) {
+            grabber.start();
+            long next = segmentMicros;
+            Frame frame;
+            while ((frame = grabber.grabKeyFrame()) != null) {
+                if (frame.image == null || !frame.keyFrame) {
+                    continue;
+                }
+                if (frame.timestamp >= next) {
+                    boundaries.add(frame.timestamp);
+                    next = (frame.timestamp / segmentMicros + 1) * segmentMicros;
+                }
+            }
+        }
+
+        List<Segment> segments = new ArrayList<>(boundaries.size());
+        for (int i = 0; i < boundaries.size(); i++) {
+            long end = i + 1 < boundaries.size() ? boundaries.get(i + 1) : Long.MAX_VALUE;
+            segments.add(new Segment(i, boundaries.get(i), end));
+        }
+        return segments;
+    }
+
+    public static class Result {
+        private final List<FusionAI.FusionResult> signs;
+        private final List<FusionAI.FusionResult> interpretation;
+        private final int segmentCount;
+        private final long elapsedNanos;
+
+        private Result(List<FusionAI.FusionResult> signs, List<FusionAI.FusionResult> interpretation,
+                       int segmentCount, long elapsedNanos) {
+            this.signs = Collections.unmodifiableList(signs);
+            this.interpretation = Collections.unmodifiableList(interpretation);
+            this.segmentCount = segmentCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // Stabilized sign events in media order, before grammar processing
+        public List<FusionAI.FusionResult> getSigns() {
+            return signs;
+        }
+
+        // The same events after grammar processing
+        public List<FusionAI.FusionResult> getInterpretation() {
+            return interpretation;
+        }
+
+        public int getSegmentCount() {
+            return segmentCount;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        // One JSON object per interpreted sign, times in media milliseconds
+        public void writeJsonl(Writer out) throws IOException {
+            JsonGenerator generator = new JsonFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            for (int i = 0; i < interpretation.size(); i++) {
+                FusionAI.FusionResult result = interpretation.get(i);
+                generator.writeStartObject();
+                generator.writeNumberField("start", result.getStartTime());
+                generator.writeNumberField("end", result.getEndTime());
+                generator.writeStringField("sign", signs.get(i).getDetectedSign());
+                generator.writeStringField("interpreted", result.getDetectedSign());
+                generator.writeNumberField("confidence", result.getConfidence());
+                generator.writeEndObject();
+            }
+            generator.writeRaw('\n');
+            generator.close();
+            out.flush();
+        }
+    }
+
+    private static final class Segment {
+        private final int index;
+        private final long startMicros;
+        // Long.MAX_VALUE for the last segment
+        private final long endMicros;
+
+        private Segment(int index, long startMicros, long endMicros) {
+            this.index = index;
+            this.startMicros = startMicros;
+            this.endMicros = endMicros;
+        }
+    }
+
+    // Carries a segment's I/O failure out of the worker thread
+    private static final class SegmentException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private SegmentException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -1,34 +1,63 @@
 package com.lsa.interpreter.ui;
 
+import com.lsa.interpreter.logic.FrameAnnotations;
+import com.lsa.interpreter.logic.FrameSource;
 import com.lsa.interpreter.logic.FusionAI;
+import com.lsa.interpreter.logic.SharedMemoryFrameSource;
+import com.lsa.interpreter.util.ErrorLogger;
+import com.lsa.interpreter.util.FlightEvents;
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsRegistry;
 import com.lsa.interpreter.util.VideoUtils;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
+import javafx.scene.paint.Color;
 import org.opencv.core.Mat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 public class DetectorUI {
     private static final Logger logger = LoggerFactory.getLogger(DetectorUI.class);
     private static final double VIDEO_WIDTH = 640;
     private static final double VIDEO_HEIGHT = 480;
+    // Overlays in flight to the FX thread; when both are taken the FX thread is behind and a frame's overlay is skipped
+    private static final int OVERLAY_BUFFERS = 2;
+    // How long a read waits for the capture process before re-checking whether detection was stopped
+    private static final long FRAME_WAIT_MS = 100;
 
     private final VBox view;
     private final ImageView videoFeed;
+    private final Canvas overlay;
+    private final CheckBox annotationsToggle;
+    private final BlockingQueue<FrameAnnotations> spareOverlays;
+    private final OverlayRenderer overlayRenderer;
     private final Label statusLabel;
     private final Button startButton;
     private final Button stopButton;
     private final FusionAI fusionAI;
+    private final MetricsRegistry.StreamMetrics streamMetrics;
     private volatile boolean isRunning;
 
     public DetectorUI(FusionAI fusionAI) {
         this.fusionAI = fusionAI;
         this.isRunning = false;
+        this.streamMetrics = MetricsRegistry.getInstance().stream(fusionAI.getStreamId());
 
         // Initialize UI components
         videoFeed = new ImageView();
@@ -36,6 +65,21 @@ public class DetectorUI {
         videoFeed.setFitHeight(VIDEO_HEIGHT);
         videoFeed.getStyleClass().add("video-feed");
 
+        // Detection annotations are drawn as vectors above the video instead of into the frame
+        overlay = new Canvas(VIDEO_WIDTH, VIDEO_HEIGHT);
+        overlay.setMouseTransparent(true);
+        overlayRenderer = new OverlayRenderer(overlay.getGraphicsContext2D());
+        spareOverlays = new ArrayBlockingQueue<>(OVERLAY_BUFFERS);
+        for (int i = 0; i < OVERLAY_BUFFERS; i++) {
+            spareOverlays.add(new FrameAnnotations());
+        }
+        StackPane videoPane = new StackPane(videoFeed, overlay);
+
+        annotationsToggle = new CheckBox("Show annotations");
+        annotationsToggle.setSelected(fusionAI.isAnnotationsEnabled());
+        annotationsToggle.setOnAction(e -> setAnnotationsVisible(annotationsToggle.isSelected()));
+        overlay.setVisible(fusionAI.isAnnotationsEnabled());
+
         statusLabel = new Label("Ready to start detection");
         statusLabel.getStyleClass().add("status-label");
 
@@ -50,12 +94,12 @@ public class DetectorUI {
 
         // Create control panel
         HBox controls = new HBox(10);
-        controls.getChildren().addAll(startButton, stopButton);
+        controls.getChildren().addAll(startButton, stopButton, annotationsToggle);
 
         // Create main layout
         view = new VBox(10);
         view.setPadding(new Insets(10));
-        view.getChildren().addAll(videoFeed, controls, statusLabel);
+        view.getChildren().addAll(videoPane, controls, statusLabel);
         view.getStyleClass().add("detector-ui");
 
         logger.info("DetectorUI initialized successfully");
@@ -65,6 +109,12 @@ public class DetectorUI {
         return view;
     }
 
+    private void setAnnotationsVisible(boolean visible) {
+        fusionAI.setAnnotationsEnabled(visible);
+        overlay.setVisible(visible);
+        overlay.getGraphicsContext2D().clearRect(0, 0, overlay.getWidth(), overlay.getHeight());
+    }
+
     private void startDetection() {
         try {
             isRunning = true;
@@ -72,8 +122,11 @@ public class DetectorUI {
             stopButton.setDisable(false);
             statusLabel.setText("Detection running...");
 
-            // Start detection in a separate thread
-            Thread detectionThread = new Thread(this::processVideoFeed);
+            // Start detection in a separate thread, reading from an external capture process when configured
+            String ring = System.getProperty("lsa.capture.shm");
+            Thread detectionThread = ring != null
+                ? new Thread(() -> processSharedMemoryFeed(Paths.get(ring)))
+                : new Thread(this::processVideoFeed);
             detectionThread.setDaemon(true);
             detectionThread.start();
 
@@ -97,15 +150,29 @@ public class DetectorUI {
         while (isRunning) {
             try {
                 // Simulate video processing
-                Mat frame = new Mat(); // Replace with actual frame capture
-                
+                long frameSequence = fusionAI.nextFrameSequence();
+                FlightEvents.FrameCaptureEvent captureEvent = new FlightEvents.FrameCaptureEvent();
+                captureEvent.begin();
+                // Handed to the FX thread for display, so it outlives the frame scope
+                Mat frame = MatTracker.getInstance().allocateLongLived("DetectorUI"); // Replace with actual frame capture
+                if (captureEvent.shouldCommit()) {
+                    captureEvent.streamId = fusionAI.getStreamId();
+                    captureEvent.frameSequence = frameSequence;
+                    captureEvent.width = frame.cols();
+                    captureEvent.height = frame.rows();
+                    captureEvent.commit();
+                }
+                if (frame.empty()) {
+                    MatTracker.getInstance().release(frame);
+                    streamMetrics.frameDropped();
+                    Thread.sleep(33);
+                    continue;
+                }
+
                 // Process frame through FusionAI
-                Mat processedFrame = fusionAI.processFrame(frame);
-                
-                // Update UI with processed frame
-                Platform.runLater(() -> {
-                    videoFeed.setImage(VideoUtils.matToImage(processedFrame));
-                });
+                Mat processedFrame = fusionAI.processFrame(frame, frameSequence);
+                streamMetrics.frameProcessed();
+                showFrame(processedFrame);
 
                 Thread.sleep(33); // ~30 FPS
             } catch (InterruptedException e) {
@@ -113,7 +180,166 @@ public class DetectorUI {
                 Thread.currentThread().interrupt();
                 break;
             } catch (Exception e) {
-                logger.error("Error processing video frame", e);
+                streamMetrics.frameDropped();
+                ErrorLogger.getInstance().logError("DetectorUI", "Error processing video frame", e);
+            }
+        }
+
+        // Emit the sign still being held when detection stops
+        fusionAI.flush();
+    }
+
+    // Frames from an external capture process (-Dlsa.capture.shm): the pipeline reads the mapped
+    // frame in place, and only the copy for display is taken
+    private void processSharedMemoryFeed(Path ring) {
+        MatTracker tracker = MatTracker.getInstance();
+        try (FrameSource source = new SharedMemoryFrameSource(ring)) {
+            while (isRunning) {
+                FrameSource.Frame captured = source.read(FRAME_WAIT_MS, TimeUnit.MILLISECONDS);
+                if (captured == null) {
+                    continue;
+                }
+                long frameSequence = fusionAI.nextFrameSequence();
+                FlightEvents.FrameCaptureEvent captureEvent = new FlightEvents.FrameCaptureEvent();
+                captureEvent.begin();
+                Mat frame = captured.getMat();
+                if (captureEvent.shouldCommit()) {
+                    captureEvent.streamId = fusionAI.getStreamId();
+                    captureEvent.frameSequence = frameSequence;
+                    captureEvent.width = frame.cols();
+                    captureEvent.height = frame.rows();
+                    captureEvent.commit();
+                }
+
+                Mat display = null;
+                try {
+                    // Results are only committed if the slot was still intact once detection had read it
+                    fusionAI.processFrame(frame, frameSequence, captured.getTimestampNanos(), captured::isIntact);
+                    // The slot is reused by the producer, so the FX thread gets its own copy
+                    display = tracker.allocateLongLived("DetectorUI");
+                    frame.copyTo(display);
+                    if (!captured.isIntact()) {
+                        // Overwritten while in use; the source counts it as torn
+                        tracker.release(display);
+                        streamMetrics.frameDropped();
+                        continue;
+                    }
+                    streamMetrics.frameProcessed();
+                    showFrame(display);
+                } catch (Exception e) {
+                    tracker.release(display);
+                    streamMetrics.frameDropped();
+                    ErrorLogger.getInstance().logError("DetectorUI", "Error processing shared-memory frame", e);
+                }
+            }
+        } catch (IOException e) {
+            ErrorLogger.getInstance().logError("DetectorUI", "Cannot open shared-memory frame ring " + ring, e);
+            Platform.runLater(() -> {
+                stopDetection();
+                statusLabel.setText("Cannot open frame ring " + ring);
+            });
+        } catch (InterruptedException e) {
+            logger.error("Video processing interrupted", e);
+            Thread.currentThread().interrupt();
+        }
+
+        // Emit the sign still being held when detection stops
+        fusionAI.flush();
+    }
+
+    // Hands a frame the FX thread may keep (and releases) to the view, with a copy of its overlay
+    private void showFrame(Mat processedFrame) {
+        // The annotation buffer is reused by the next frame, so the FX thread gets a copy
+        FrameAnnotations annotations = fusionAI.getAnnotations();
+        FrameAnnotations overlayCopy = annotations != null ? spareOverlays.poll() : null;
+        if (overlayCopy != null) {
+            annotations.copyTo(overlayCopy);
+        }
+
+        // Update UI with processed frame
+        Platform.runLater(() -> {
+            videoFeed.setImage(VideoUtils.matToImage(processedFrame));
+            MatTracker.getInstance().release(processedFrame);
+            if (overlayCopy != null) {
+                drawOverlay(overlayCopy);
+                spareOverlays.add(overlayCopy);
+            }
+        });
+    }
+
+    private void drawOverlay(FrameAnnotations annotations) {
+        GraphicsContext graphics = overlay.getGraphicsContext2D();
+        graphics.clearRect(0, 0, overlay.getWidth(), overlay.getHeight());
+        if (!annotationsToggle.isSelected() || annotations.getFrameWidth() == 0 || annotations.getFrameHeight() == 0) {
+            return;
+        }
+        // The video is stretched to the view, so the overlay is too
+        overlayRenderer.setScale(overlay.getWidth() / annotations.getFrameWidth(),
+            overlay.getHeight() / annotations.getFrameHeight());
+        annotations.render(overlayRenderer);
+    }
+
+    private static final class OverlayRenderer implements FrameAnnotations.Renderer {
+        private static final double LINE_WIDTH = 2;
+
+        private final GraphicsContext graphics;
+        private double[] xs = new double[256];
+        private double[] ys = new double[256];
+        private double scaleX = 1;
+        private double scaleY = 1;
+
+        private OverlayRenderer(GraphicsContext graphics) {
+            this.graphics = graphics;
+            graphics.setLineWidth(LINE_WIDTH);
+        }
+
+        private void setScale(double scaleX, double scaleY) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+
+        @Override
+        public void polyline(double[] coords, int offset, int pointCount, boolean closed, FrameAnnotations.Style style) {
+            if (xs.length < pointCount) {
+                xs = new double[pointCount];
+                ys = new double[pointCount];
+            }
+            for (int i = 0; i < pointCount; i++) {
+                xs[i] = coords[offset + 2 * i] * scaleX;
+                ys[i] = coords[offset + 2 * i + 1] * scaleY;
+            }
+            graphics.setStroke(colorOf(style));
+            if (closed) {
+                graphics.strokePolygon(xs, ys, pointCount);
+            } else {
+                graphics.strokePolyline(xs, ys, pointCount);
+            }
+        }
+
+        @Override
+        public void rect(double x, double y, double width, double height, FrameAnnotations.Style style) {
+            graphics.setStroke(colorOf(style));
+            graphics.strokeRect(x * scaleX, y * scaleY, width * scaleX, height * scaleY);
+        }
+
+        @Override
+        public void point(double x, double y, double radius, FrameAnnotations.Style style) {
+            graphics.setFill(colorOf(style));
+            graphics.fillOval(x * scaleX - radius, y * scaleY - radius, radius * 2, radius * 2);
+        }
+
+        private static Color colorOf(FrameAnnotations.Style style) {
+            switch (style) {
+                case HAND_CONTOUR:
+                case FACE:
+                    return Color.LIME;
+                case HAND_HULL:
+                case EYE:
+                    return Color.BLUE;
+                case CONVEXITY_DEFECT:
+                    return Color.RED;
+                default:
+                    return Color.WHITE;
             }
         }
     }
@@ -1,12 +1,14 @@
 package com.lsa.interpreter.ui;
 
 import com.lsa.interpreter.logic.DictionaryManager;
+import com.lsa.interpreter.logic.SentenceResolver;
+import com.lsa.interpreter.logic.SignEnrollment;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-import javafx.scene.media.MediaView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,12 +19,22 @@ public class DictionaryUI {
     private final TextField searchField;
     private final ListView<DictionaryManager.SignEntry> signList;
     private final Label descriptionLabel;
-    private final MediaView videoPlayer;
-    private MediaPlayer mediaPlayer;
+    private final SignSequencePlayer signPlayer;
+    private final TextField sentenceField;
+    private final Label unresolvedLabel;
+    private final Button enrollButton;
+    private SignEnrollment enrollment;
     private final DictionaryManager dictionaryManager;
+    private final SentenceResolver sentenceResolver;
 
     public DictionaryUI() {
-        dictionaryManager = new DictionaryManager();
+        this(null);
+    }
+
+    // Takes a dictionary already loaded in the background, or loads one itself when null
+    public DictionaryUI(DictionaryManager loadedDictionary) {
+        dictionaryManager = loadedDictionary != null ? loadedDictionary : new DictionaryManager();
+        sentenceResolver = new SentenceResolver(dictionaryManager);
 
         // Initialize search field
         searchField = new TextField();
@@ -44,11 +56,31 @@ public class DictionaryUI {
         descriptionLabel.getStyleClass().add("description-label");
         descriptionLabel.setWrapText(true);
 
-        // Initialize video player
-        videoPlayer = new MediaView();
-        videoPlayer.getStyleClass().add("video-player");
-        videoPlayer.setFitWidth(320);
-        videoPlayer.setFitHeight(240);
+        // Initialize video player, shared by single signs and sentences
+        signPlayer = new SignSequencePlayer(320, 240);
+        signPlayer.setOnSignStarted(sign -> descriptionLabel.setText(sign.getSign() + ": " + sign.getDescription()));
+        signPlayer.setOnWordUnresolved(this::showUnresolvedWord);
+
+        // Initialize text-to-sign input
+        sentenceField = new TextField();
+        sentenceField.setPromptText("Type a sentence to sign...");
+        sentenceField.getStyleClass().add("search-field");
+        sentenceField.setOnAction(e -> playSentence());
+        Button playSentenceButton = new Button("Sign It");
+        playSentenceButton.getStyleClass().add("control-button");
+        playSentenceButton.setOnAction(e -> playSentence());
+        HBox sentenceBox = new HBox(5, sentenceField, playSentenceButton);
+        HBox.setHgrow(sentenceField, Priority.ALWAYS);
+
+        unresolvedLabel = new Label();
+        unresolvedLabel.getStyleClass().add("description-label");
+        unresolvedLabel.setWrapText(true);
+
+        // Initialize enrollment button (enabled once an enrollment flow is attached)
+        enrollButton = new Button("Record Variant");
+        enrollButton.getStyleClass().add("control-button");
+        enrollButton.setDisable(true);
+        enrollButton.setOnAction(e -> recordVariant());
 
         // Create main layout
         view = new VBox(10);
@@ -56,13 +88,20 @@ public class DictionaryUI {
         view.getChildren().addAll(
             searchField,
             signList,
-            videoPlayer,
-            descriptionLabel
+            sentenceBox,
+            signPlayer.getView(),
+            descriptionLabel,
+            unresolvedLabel,
+            enrollButton
         );
         view.getStyleClass().add("dictionary-ui");
 
         // Load initial dictionary data
-        loadDictionary();
+        if (loadedDictionary != null) {
+            updateSignList("");
+        } else {
+            loadDictionary();
+        }
 
         logger.info("DictionaryUI initialized successfully");
     }
@@ -75,6 +114,42 @@ public class DictionaryUI {
         dictionaryManager.addListener(listener);
     }
 
+    public void setEnrollment(SignEnrollment enrollment) {
+        this.enrollment = enrollment;
+        enrollment.addListener(new SignEnrollment.EnrollmentListener() {
+            @Override
+            public void onRepetitionCaptured(DictionaryManager.SignEntry sign, int captured, int total) {
+                Platform.runLater(() -> enrollButton.setText(
+                    String.format("Record Variant (%d/%d)", captured, total)));
+            }
+
+            @Override
+            public void onEnrollmentCompleted(DictionaryManager.SignEntry sign, int templateCount) {
+                Platform.runLater(() -> enrollButton.setText("Record Variant"));
+            }
+        });
+        enrollButton.setDisable(signList.getSelectionModel().getSelectedItem() == null);
+    }
+
+    public DictionaryManager getDictionaryManager() {
+        return dictionaryManager;
+    }
+
+    private void recordVariant() {
+        DictionaryManager.SignEntry selected = signList.getSelectionModel().getSelectedItem();
+        if (enrollment == null || selected == null) {
+            return;
+        }
+
+        // Each click captures one repetition of the selected sign from the live feed
+        if (!enrollment.isEnrolling() || enrollment.getCurrentSign() != selected) {
+            enrollment.startEnrollment(selected);
+        }
+        if (!enrollment.captureRepetition()) {
+            showError("No hand detected. Start detection and perform the sign first.");
+        }
+    }
+
     private void loadDictionary() {
         try {
             dictionaryManager.loadDictionary();
@@ -93,23 +168,29 @@ public class DictionaryUI {
 
     private void showSignDetails(DictionaryManager.SignEntry sign) {
         descriptionLabel.setText(sign.getDescription());
+        unresolvedLabel.setText("");
+        enrollButton.setDisable(enrollment == null);
+        signPlayer.play(sign);
+    }
 
-        // Stop current video if playing
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.dispose();
+    // Plays the signs for the typed sentence back to back; words without a sign are listed below
+    private void playSentence() {
+        String sentence = sentenceField.getText();
+        if (sentence == null || sentence.isBlank()) {
+            return;
         }
+        descriptionLabel.setText("");
+        unresolvedLabel.setText("");
+        signPlayer.playSentence(sentence, sentenceResolver);
+    }
 
-        // Load and play new video
-        try {
-            Media media = new Media(sign.getVideoUrl());
-            mediaPlayer = new MediaPlayer(media);
-            videoPlayer.setMediaPlayer(mediaPlayer);
-            mediaPlayer.play();
-        } catch (Exception e) {
-            logger.error("Failed to load sign video", e);
-            showError("Failed to load video");
-        }
+    private void showUnresolvedWord(String word) {
+        String shown = unresolvedLabel.getText();
+        unresolvedLabel.setText(shown == null || shown.isEmpty() ? "No sign for: " + word : shown + ", " + word);
+    }
+
+    public void stopPlayback() {
+        signPlayer.stop();
     }
 
     private void showError(String message) {
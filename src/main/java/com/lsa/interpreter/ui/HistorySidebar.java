@@ -1,7 +1,9 @@
 package com.lsa.interpreter.ui;
 
 import com.lsa.interpreter.logic.FusionAI;
+import com.lsa.interpreter.util.RingBuffer;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -11,22 +13,44 @@ import javafx.scene.layout.VBox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class HistorySidebar implements FusionAI.FusionListener {
     private static final Logger logger = LoggerFactory.getLogger(HistorySidebar.class);
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int DEFAULT_CAPACITY = 500;
+    private static final double HIGH_CONFIDENCE = 0.8;
+    private static final double MEDIUM_CONFIDENCE = 0.5;
 
     private final VBox view;
     private final ListView<HistoryItem> historyList;
     private final Label statisticsLabel;
-    private final List<HistoryItem> history;
+    private final RingBuffer<HistoryItem> history;
+    private final Queue<HistoryItem> pendingItems;
+    private final HistoryStatistics statistics;
+    // Set while a drain is queued on the FX thread, so a burst of detections costs one runLater
+    private final AtomicBoolean drainScheduled;
 
     public HistorySidebar() {
-        history = new ArrayList<>();
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HistorySidebar(int capacity) {
+        history = new RingBuffer<>(capacity);
+        pendingItems = new ConcurrentLinkedQueue<>();
+        statistics = new HistoryStatistics();
+        drainScheduled = new AtomicBoolean();
 
         // Initialize history list
         historyList = new ListView<>();
@@ -48,7 +72,7 @@ public class HistorySidebar implements FusionAI.FusionListener {
         view.getChildren().addAll(historyList, statisticsLabel, clearButton);
         view.getStyleClass().add("history-sidebar");
 
-        logger.info("HistorySidebar initialized successfully");
+        logger.info("HistorySidebar initialized successfully with capacity {}", capacity);
     }
 
     public VBox getView() {
@@ -57,31 +81,125 @@ public class HistorySidebar implements FusionAI.FusionListener {
 
     @Override
     public void onDetectionResult(FusionAI.FusionResult result) {
-        Platform.runLater(() -> {
-            HistoryItem item = new HistoryItem(
-                result.getDetectedSign(),
-                result.getConfidence(),
-                LocalDateTime.now()
-            );
-            history.add(0, item);
-            historyList.getItems().add(0, item);
-            updateStatistics();
-            logger.debug("New detection added to history: {}", item);
-        });
+        pendingItems.offer(new HistoryItem(
+            result.getDetectedSign(),
+            result.getConfidence(),
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(result.getStartTime()), ZoneId.systemDefault())
+        ));
+        // Queued detections are applied in one batch instead of once per event
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::applyPendingItems);
+        }
+    }
+
+    public List<HistoryItem> getHistory() {
+        return history.toList();
+    }
+
+    public HistoryStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void applyPendingItems() {
+        // Cleared first, so a detection arriving during the drain schedules another one
+        drainScheduled.set(false);
+        if (pendingItems.isEmpty()) {
+            return;
+        }
+
+        // Drain everything that arrived since the last drain, newest first
+        List<HistoryItem> batch = new ArrayList<>();
+        HistoryItem item;
+        while ((item = pendingItems.poll()) != null) {
+            history.add(item);
+            statistics.record(item);
+            batch.add(item);
+        }
+        Collections.reverse(batch);
+
+        // One insertion and at most one trim per batch
+        ObservableList<HistoryItem> items = historyList.getItems();
+        if (batch.size() >= history.capacity()) {
+            items.setAll(batch.subList(0, history.capacity()));
+        } else {
+            items.addAll(0, batch);
+            if (items.size() > history.capacity()) {
+                items.remove(history.capacity(), items.size());
+            }
+        }
+
+        updateStatistics();
+        logger.debug("Applied {} new detections to history", batch.size());
     }
 
     private void clearHistory() {
+        pendingItems.clear();
         history.clear();
+        statistics.clear();
         historyList.getItems().clear();
         updateStatistics();
         logger.info("History cleared");
     }
 
     private void updateStatistics() {
-        statisticsLabel.setText(String.format("Total detections: %d", history.size()));
+        statisticsLabel.setText(String.format("Total detections: %d (high %d / medium %d / low %d)",
+            statistics.getTotalCount(),
+            statistics.getHighConfidenceCount(),
+            statistics.getMediumConfidenceCount(),
+            statistics.getLowConfidenceCount()
+        ));
+    }
+
+    public static class HistoryStatistics {
+        private final Map<String, int[]> countsBySign = new HashMap<>();
+        private long totalCount;
+        private long highConfidenceCount;
+        private long mediumConfidenceCount;
+        private long lowConfidenceCount;
+
+        private void record(HistoryItem item) {
+            totalCount++;
+            countsBySign.computeIfAbsent(item.getSign(), sign -> new int[1])[0]++;
+            if (item.getConfidence() >= HIGH_CONFIDENCE) {
+                highConfidenceCount++;
+            } else if (item.getConfidence() >= MEDIUM_CONFIDENCE) {
+                mediumConfidenceCount++;
+            } else {
+                lowConfidenceCount++;
+            }
+        }
+
+        private void clear() {
+            countsBySign.clear();
+            totalCount = 0;
+            highConfidenceCount = 0;
+            mediumConfidenceCount = 0;
+            lowConfidenceCount = 0;
+        }
+
+        public int getCount(String sign) {
+            int[] count = countsBySign.get(sign);
+            return count != null ? count[0] : 0;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getHighConfidenceCount() {
+            return highConfidenceCount;
+        }
+
+        public long getMediumConfidenceCount() {
+            return mediumConfidenceCount;
+        }
+
+        public long getLowConfidenceCount() {
+            return lowConfidenceCount;
+        }
     }
 
-    private static class HistoryItem {
+    public static class HistoryItem {
         private final String sign;
         private final double confidence;
         private final LocalDateTime timestamp;
@@ -127,9 +245,9 @@ public class HistorySidebar implements FusionAI.FusionListener {
                 
                 // Apply confidence-based styling
                 getStyleClass().removeAll("high-confidence", "medium-confidence", "low-confidence");
-                if (item.getConfidence() >= 0.8) {
+                if (item.getConfidence() >= HIGH_CONFIDENCE) {
                     getStyleClass().add("high-confidence");
-                } else if (item.getConfidence() >= 0.5) {
+                } else if (item.getConfidence() >= MEDIUM_CONFIDENCE) {
                     getStyleClass().add("medium-confidence");
                 } else {
                     getStyleClass().add("low-confidence");
@@ -4,6 +4,12 @@ import com.lsa.interpreter.logic.DictionaryManager;
 import java.util.List;
 
 import com.lsa.interpreter.logic.FusionAI;
+import com.lsa.interpreter.logic.OutputServer;
+import com.lsa.interpreter.logic.SignEnrollment;
+import com.lsa.interpreter.logic.TemplateStore;
+import com.lsa.interpreter.logic.TranscriptStore;
+import com.lsa.interpreter.util.MatTracker;
+import com.lsa.interpreter.util.MetricsServer;
 import javafx.scene.Scene;
 import javafx.scene.control.SplitPane;
 import javafx.scene.layout.BorderPane;
@@ -21,12 +27,25 @@ public class MainWindow {
     private final DictionaryUI dictionaryUI;
     private final HistorySidebar historySidebar;
     private final FusionAI fusionAI;
+    private final TemplateStore templateStore;
+    private final TranscriptStore transcriptStore;
+    private final MetricsServer metricsServer;
+    private final OutputServer outputServer;
 
-    public MainWindow() {
-        fusionAI = new FusionAI();
+    // Components arrive initialized from StartupOrchestrator: natives loaded, templates and dictionary read
+    public MainWindow(FusionAI fusionAI, TemplateStore templateStore, DictionaryManager dictionaryManager) {
+        this.fusionAI = fusionAI;
+        this.templateStore = templateStore;
         detectorUI = new DetectorUI(fusionAI);
-        dictionaryUI = new DictionaryUI();
+        dictionaryUI = new DictionaryUI(dictionaryManager);
         historySidebar = new HistorySidebar();
+        transcriptStore = new TranscriptStore();
+        metricsServer = new MetricsServer();
+        metricsServer.start();
+        outputServer = new OutputServer();
+        outputServer.start();
+
+        dictionaryUI.setEnrollment(new SignEnrollment(fusionAI, templateStore));
 
         // Set up communication between components
         setupComponentInteractions();
@@ -55,13 +74,19 @@ public class MainWindow {
             root.setCenter(mainContent);
             root.setRight(rightSidebar);
 
-            // Create and configure scene
-            Scene scene = new Scene(root, WINDOW_WIDTH, WINDOW_HEIGHT);
-            scene.getStylesheets().add(getClass().getResource("/styles/main.css").toExternalForm());
+            // Reuse the startup placeholder scene (stylesheet already applied) when there is one
+            Scene scene = stage.getScene();
+            if (scene != null) {
+                scene.setRoot(root);
+            } else {
+                scene = new Scene(root, WINDOW_WIDTH, WINDOW_HEIGHT);
+                scene.getStylesheets().add(getClass().getResource("/styles/main.css").toExternalForm());
+            }
 
             // Configure and show stage
             stage.setTitle(WINDOW_TITLE);
             stage.setScene(scene);
+            stage.setOnHidden(e -> shutdown());
             stage.show();
 
             logger.info("Main window initialized successfully");
@@ -74,6 +99,22 @@ public class MainWindow {
     private void setupComponentInteractions() {
         // Set up listeners and event handlers between components
         fusionAI.addListener(historySidebar);
+        fusionAI.addListener(transcriptStore);
+        fusionAI.addListener(outputServer);
         // Dictionary updates are handled through lambda in constructor
     }
+
+    private void shutdown() {
+        dictionaryUI.stopPlayback();
+        fusionAI.removeListener(transcriptStore);
+        transcriptStore.close();
+        fusionAI.removeListener(outputServer);
+        outputServer.stop();
+        templateStore.close();
+        metricsServer.stop();
+        if (MatTracker.getInstance().isDebug()) {
+            MatTracker.getInstance().logLiveAllocations();
+        }
+        logger.info("Main window closed");
+    }
 }
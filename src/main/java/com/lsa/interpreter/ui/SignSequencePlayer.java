@@ -0,0 +1,258 @@
+package com.lsa.interpreter.ui;
+
+import com.lsa.interpreter.logic.DictionaryManager;
+import com.lsa.interpreter.logic.SentenceResolver;
+import javafx.application.Platform;
+import javafx.scene.layout.StackPane;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import javafx.scene.media.MediaView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Plays sign videos back to back without black gaps. Two MediaViews are stacked: while one plays,
+// the next clip is already loaded and prerolled on the hidden one, and the views swap as soon as
+// it starts, so the last frame of a sign stays up until the first frame of the next is ready.
+// Sentences are resolved to signs on a background thread and each sign is queued as it resolves,
+// so playback starts with the first word. All methods must be called on the FX thread.
+public class SignSequencePlayer {
+    private static final Logger logger = LoggerFactory.getLogger(SignSequencePlayer.class);
+
+    private final StackPane view;
+    private final MediaView[] screens;
+    private final DictionaryManager.SignEntry[] screenSigns;
+    private final Deque<DictionaryManager.SignEntry> pending;
+    private final ExecutorService resolver;
+    private int active;
+    private boolean playing;
+    private boolean preloaded;
+    // Between starting the preloaded clip and it rendering, the old screen is still on show
+    private boolean swapping;
+    // Bumped on every new sequence so late resolutions of an abandoned sentence are ignored
+    private long generation;
+    private Consumer<DictionaryManager.SignEntry> onSignStarted;
+    private Consumer<String> onWordUnresolved;
+
+    public SignSequencePlayer(double width, double height) {
+        this.screens = new MediaView[2];
+        this.screenSigns = new DictionaryManager.SignEntry[2];
+        this.view = new StackPane();
+        for (int i = 0; i < screens.length; i++) {
+            screens[i] = new MediaView();
+            screens[i].getStyleClass().add("video-player");
+            screens[i].setFitWidth(width);
+            screens[i].setFitHeight(height);
+            screens[i].setPreserveRatio(true);
+            screens[i].setVisible(i == 0);
+            view.getChildren().add(screens[i]);
+        }
+        this.pending = new ArrayDeque<>();
+        this.resolver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sign-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public StackPane getView() {
+        return view;
+    }
+
+    public void setOnSignStarted(Consumer<DictionaryManager.SignEntry> onSignStarted) {
+        this.onSignStarted = onSignStarted;
+    }
+
+    public void setOnWordUnresolved(Consumer<String> onWordUnresolved) {
+        this.onWordUnresolved = onWordUnresolved;
+    }
+
+    public void play(DictionaryManager.SignEntry sign) {
+        long sequence = restart();
+        enqueue(sequence, sign);
+    }
+
+    public void playSentence(String sentence, SentenceResolver sentenceResolver) {
+        long sequence = restart();
+        resolver.execute(() -> sentenceResolver.resolve(sentence, new SentenceResolver.ResolutionListener() {
+            @Override
+            public void onSignResolved(DictionaryManager.SignEntry sign) {
+                Platform.runLater(() -> enqueue(sequence, sign));
+            }
+
+            @Override
+            public void onWordUnresolved(String word) {
+                Platform.runLater(() -> {
+                    if (sequence == generation && onWordUnresolved != null) {
+                        onWordUnresolved.accept(word);
+                    }
+                });
+            }
+        }));
+    }
+
+    public void stop() {
+        restart();
+    }
+
+    private long restart() {
+        generation++;
+        pending.clear();
+        for (int i = 0; i < screens.length; i++) {
+            disposePlayer(i);
+        }
+        playing = false;
+        preloaded = false;
+        swapping = false;
+        return generation;
+    }
+
+    private void enqueue(long sequence, DictionaryManager.SignEntry sign) {
+        if (sequence != generation) {
+            return;
+        }
+        pending.add(sign);
+        if (!playing) {
+            startNext();
+        } else {
+            preloadNext();
+        }
+    }
+
+    // Nothing is playing: start the first playable pending sign on the visible screen
+    private void startNext() {
+        DictionaryManager.SignEntry sign;
+        while ((sign = pending.poll()) != null) {
+            MediaPlayer player = load(sign, active);
+            if (player != null) {
+                // A clip that failed mid-swap can leave the other screen on show
+                screens[active].setVisible(true);
+                screens[1 - active].setVisible(false);
+                swapping = false;
+                playing = true;
+                player.play();
+                notifySignStarted(sign);
+                preloadNext();
+                return;
+            }
+        }
+        playing = false;
+    }
+
+    // Loads the next pending sign on the hidden screen so it is ready when the current one ends
+    private void preloadNext() {
+        if (!playing || preloaded || swapping) {
+            return;
+        }
+        DictionaryManager.SignEntry sign;
+        while ((sign = pending.poll()) != null) {
+            if (load(sign, 1 - active) != null) {
+                preloaded = true;
+                return;
+            }
+        }
+    }
+
+    private void onFinished(MediaPlayer player) {
+        if (player != screens[active].getMediaPlayer()) {
+            return;
+        }
+        if (!preloaded) {
+            // Either the sentence is done or resolution has not caught up; enqueue restarts playback
+            playing = false;
+            startNext();
+            return;
+        }
+        int previous = active;
+        active = 1 - active;
+        preloaded = false;
+        swapping = true;
+        MediaPlayer next = screens[active].getMediaPlayer();
+        int shown = active;
+        long sequence = generation;
+        next.setOnPlaying(() -> {
+            if (sequence != generation || shown != active) {
+                return;
+            }
+            // Swap only once the next clip is actually rendering, so no blank frame shows in between.
+            // The old screen is reused for the following clip only after it is hidden.
+            screens[shown].setVisible(true);
+            screens[previous].setVisible(false);
+            swapping = false;
+            preloadNext();
+        });
+        next.play();
+        notifySignStarted(screenSigns[active]);
+    }
+
+    private void onFailed(MediaPlayer player, DictionaryManager.SignEntry sign) {
+        logger.error("Failed to play sign video for {}", sign.getSign(), player.getError());
+        if (player == screens[active].getMediaPlayer()) {
+            onFinished(player);
+        } else if (player == screens[1 - active].getMediaPlayer()) {
+            disposePlayer(1 - active);
+            preloaded = false;
+            preloadNext();
+        }
+    }
+
+    private MediaPlayer load(DictionaryManager.SignEntry sign, int screen) {
+        String source = mediaSource(sign.getVideoUrl());
+        if (source == null) {
+            logger.warn("No video found for sign {} ({})", sign.getSign(), sign.getVideoUrl());
+            return null;
+        }
+        try {
+            MediaPlayer player = new MediaPlayer(new Media(source));
+            player.setOnEndOfMedia(() -> onFinished(player));
+            player.setOnError(() -> onFailed(player, sign));
+            disposePlayer(screen);
+            screens[screen].setMediaPlayer(player);
+            screenSigns[screen] = sign;
+            return player;
+        } catch (Exception e) {
+            logger.error("Failed to load sign video for {}", sign.getSign(), e);
+            return null;
+        }
+    }
+
+    private void disposePlayer(int screen) {
+        MediaPlayer player = screens[screen].getMediaPlayer();
+        if (player != null) {
+            screens[screen].setMediaPlayer(null);
+            player.dispose();
+        }
+        screenSigns[screen] = null;
+    }
+
+    private void notifySignStarted(DictionaryManager.SignEntry sign) {
+        if (onSignStarted != null) {
+            onSignStarted.accept(sign);
+        }
+    }
+
+    // Dictionary video URLs are either absolute URIs or paths relative to the classpath or working directory
+    static String mediaSource(String videoUrl) {
+        if (videoUrl == null || videoUrl.isEmpty()) {
+            return null;
+        }
+        // At least two scheme characters, so Windows drive letters are treated as paths
+        if (videoUrl.matches("[a-zA-Z][a-zA-Z0-9+.-]+:.*")) {
+            return videoUrl;
+        }
+        URL resource = SignSequencePlayer.class.getResource("/" + videoUrl);
+        if (resource != null) {
+            return resource.toExternalForm();
+        }
+        Path file = Path.of(videoUrl);
+        return Files.isRegularFile(file) ? file.toUri().toString() : null;
+    }
+}
@@ -3,21 +3,50 @@ package com.lsa.interpreter.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ErrorLogger {
     private static final Logger logger = LoggerFactory.getLogger(ErrorLogger.class);
     private static final int MAX_ERROR_HISTORY = 100;
-    
+    private static final long LOG_INTERVAL_MS = 10_000;
+    // Messages that embed ids or paths make a new signature each time, so the table is bounded: past
+    // MAX_SIGNATURES, one thread sweeps out the least recently seen down to SWEEP_TARGET
+    private static final int MAX_SIGNATURES = 512;
+    private static final int SWEEP_TARGET = MAX_SIGNATURES * 3 / 4;
+
     private static final ErrorLogger instance = new ErrorLogger();
-    private final ConcurrentLinkedQueue<ErrorEntry> errorHistory;
+    private final AtomicReferenceArray<ErrorEntry> errorHistory;
+    private final AtomicLong historyCursor;
+    private final ConcurrentHashMap<SignatureKey, ErrorSignature> signatures;
+    // Occurrences of evicted signatures, so per-component counts never go backwards
+    private final ConcurrentHashMap<String, LongAdder> evictedCounts;
+    private final AtomicBoolean sweeping;
+    private final LongAdder totalErrors;
+    private final LongAdder evictedSignatures;
 
     private ErrorLogger() {
-        this.errorHistory = new ConcurrentLinkedQueue<>();
+        this.errorHistory = new AtomicReferenceArray<>(MAX_ERROR_HISTORY);
+        this.historyCursor = new AtomicLong();
+        this.signatures = new ConcurrentHashMap<>();
+        this.evictedCounts = new ConcurrentHashMap<>();
+        this.sweeping = new AtomicBoolean();
+        this.totalErrors = new LongAdder();
+        this.evictedSignatures = new LongAdder();
         logger.info("ErrorLogger initialized");
     }
 
@@ -26,35 +55,255 @@ public class ErrorLogger {
     }
 
     public void logError(String component, String message, Throwable error) {
-        ErrorEntry entry = new ErrorEntry(component, message, error);
-        
-        // Add to history
-        errorHistory.add(entry);
-        
-        // Trim history if needed
-        while (errorHistory.size() > MAX_ERROR_HISTORY) {
-            errorHistory.poll();
-        }
-        
-        // Log to SLF4J
-        logger.error("[{}] {}: {}", component, message, error.getMessage(), error);
+        record(component, message, error);
     }
 
     public void logError(String component, String message) {
-        logError(component, message, new Exception(message));
+        // No exception is built just to carry the message; the message itself is the signature
+        record(component, message, null);
+    }
+
+    private void record(String component, String message, Throwable error) {
+        totalErrors.increment();
+        long now = System.currentTimeMillis();
+
+        // Repeated errors cost one lock-free lookup; the stack trace is only walked for a new signature
+        SignatureKey key = new SignatureKey(component, error != null ? error.getClass() : null, message);
+        ErrorSignature signature = signatures.get(key);
+        if (signature == null) {
+            signature = signatures.computeIfAbsent(key, k -> new ErrorSignature(component, message, error, now));
+            if (signatures.size() > MAX_SIGNATURES) {
+                sweep();
+            }
+        }
+        signature.count.incrementAndGet();
+        signature.lastSeen.set(now);
+        if (signature.evicted) {
+            // Swept between the lookup and the increment: the sweeper may already have folded the count
+            foldEvicted(signature);
+        }
+
+        // At most one log line per signature per interval
+        long lastLogged = signature.lastLogged.get();
+        if (lastLogged != 0 && now - lastLogged < LOG_INTERVAL_MS) {
+            signature.suppressed.increment();
+            return;
+        }
+        if (!signature.lastLogged.compareAndSet(lastLogged, now)) {
+            signature.suppressed.increment();
+            return;
+        }
+
+        long suppressed = signature.suppressed.sumThenReset();
+        if (lastLogged == 0) {
+            // First occurrence: full stack trace once
+            if (error != null) {
+                logger.error("[{}] {}: {}", component, message, error.getMessage(), error);
+            } else {
+                logger.error("[{}] {}", component, message);
+            }
+        } else {
+            logger.error("[{}] {}: {} (repeated {} more times since last report, {} total)",
+                component, message, error != null ? error.getMessage() : "", suppressed, signature.getCount());
+        }
+
+        addToHistory(new ErrorEntry(component, message, error));
+    }
+
+    // Approximate LRU: drops the least recently seen signatures. Skipped if another thread is sweeping.
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<SignatureKey, ErrorSignature>> entries = new ArrayList<>(signatures.entrySet());
+            if (entries.size() <= MAX_SIGNATURES) {
+                return;
+            }
+            // lastSeen keeps moving, so the cutoff comes from a snapshot rather than a live sort
+            long[] lastSeen = new long[entries.size()];
+            for (int i = 0; i < lastSeen.length; i++) {
+                lastSeen[i] = entries.get(i).getValue().lastSeen.get();
+            }
+            long[] sorted = lastSeen.clone();
+            Arrays.sort(sorted);
+            int excess = entries.size() - SWEEP_TARGET;
+            long cutoff = sorted[excess - 1];
+            int removed = 0;
+            for (int i = 0; i < lastSeen.length && removed < excess; i++) {
+                if (lastSeen[i] > cutoff) {
+                    continue;
+                }
+                Map.Entry<SignatureKey, ErrorSignature> entry = entries.get(i);
+                ErrorSignature signature = entry.getValue();
+                if (signatures.remove(entry.getKey(), signature)) {
+                    removed++;
+                    // Marked before folding, so an increment that misses the fold sees the mark and folds itself
+                    signature.evicted = true;
+                    foldEvicted(signature);
+                    evictedSignatures.increment();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // Moves an evicted signature's count into the per-component totals; getAndSet hands each
+    // occurrence to exactly one caller
+    private void foldEvicted(ErrorSignature signature) {
+        long count = signature.count.getAndSet(0);
+        if (count > 0) {
+            evictedCounts.computeIfAbsent(signature.getComponent(), c -> new LongAdder()).add(count);
+        }
+    }
+
+    private void addToHistory(ErrorEntry entry) {
+        long slot = historyCursor.getAndIncrement();
+        errorHistory.set((int) (slot % MAX_ERROR_HISTORY), entry);
     }
 
     public List<ErrorEntry> getRecentErrors() {
-        List<ErrorEntry> errors = new ArrayList<>(errorHistory);
-        Collections.reverse(errors);
+        List<ErrorEntry> errors = new ArrayList<>(MAX_ERROR_HISTORY);
+        long end = historyCursor.get();
+        for (long i = end - 1; i >= Math.max(0, end - MAX_ERROR_HISTORY); i--) {
+            ErrorEntry entry = errorHistory.get((int) (i % MAX_ERROR_HISTORY));
+            if (entry != null) {
+                errors.add(entry);
+            }
+        }
         return Collections.unmodifiableList(errors);
     }
 
+    public List<ErrorSignature> getErrorSignatures() {
+        List<ErrorSignature> result = new ArrayList<>(signatures.values());
+        result.sort(Comparator.comparingLong(ErrorSignature::getCount).reversed());
+        return Collections.unmodifiableList(result);
+    }
+
+    public Map<String, Long> getErrorCountsByComponent() {
+        Map<String, Long> counts = new TreeMap<>();
+        evictedCounts.forEach((component, count) -> counts.put(component, count.sum()));
+        for (ErrorSignature signature : signatures.values()) {
+            counts.merge(signature.getComponent(), signature.getCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    // Signatures dropped to keep the table bounded; their occurrences still count per component
+    public long getEvictedSignatureCount() {
+        return evictedSignatures.sum();
+    }
+
+    public long getTotalErrorCount() {
+        return totalErrors.sum();
+    }
+
     public void clearHistory() {
-        errorHistory.clear();
+        for (int i = 0; i < MAX_ERROR_HISTORY; i++) {
+            errorHistory.set(i, null);
+        }
+        signatures.clear();
+        evictedCounts.clear();
+        evictedSignatures.reset();
         logger.info("Error history cleared");
     }
 
+    // Component, exception type and message; the message already tells apart the call sites
+    // that share a component
+    private static final class SignatureKey {
+        private final String component;
+        private final Class<?> errorType;
+        private final String message;
+
+        private SignatureKey(String component, Class<?> errorType, String message) {
+            this.component = component;
+            this.errorType = errorType;
+            this.message = message;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SignatureKey)) {
+                return false;
+            }
+            SignatureKey other = (SignatureKey) o;
+            return Objects.equals(component, other.component)
+                && errorType == other.errorType
+                && Objects.equals(message, other.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(component, errorType, message);
+        }
+    }
+
+    public static class ErrorSignature {
+        private final String component;
+        private final String message;
+        private final Throwable sample;
+        private final StackTraceElement origin;
+        private final long firstSeen;
+        private final AtomicLong lastSeen;
+        private final AtomicLong lastLogged;
+        private final AtomicLong count;
+        private final LongAdder suppressed;
+        private volatile boolean evicted;
+
+        private ErrorSignature(String component, String message, Throwable sample, long firstSeen) {
+            this.component = component;
+            this.message = message;
+            this.sample = sample;
+            // Walked once, when the signature is first seen
+            StackTraceElement[] trace = sample != null ? sample.getStackTrace() : new StackTraceElement[0];
+            this.origin = trace.length > 0 ? trace[0] : null;
+            this.firstSeen = firstSeen;
+            this.lastSeen = new AtomicLong(firstSeen);
+            this.lastLogged = new AtomicLong();
+            this.count = new AtomicLong();
+            this.suppressed = new LongAdder();
+        }
+
+        public String getComponent() {
+            return component;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Throwable getSample() {
+            return sample;
+        }
+
+        // The frame that threw the first sample; null for errors logged without an exception
+        public StackTraceElement getOrigin() {
+            return origin;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public LocalDateTime getFirstSeen() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(firstSeen), ZoneId.systemDefault());
+        }
+
+        public LocalDateTime getLastSeen() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen.get()), ZoneId.systemDefault());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s (%d occurrences, first %s, last %s)",
+                component, message, getCount(), getFirstSeen(), getLastSeen());
+        }
+    }
+
     public static class ErrorEntry {
         private final String component;
         private final String message;
@@ -85,6 +334,9 @@ public class ErrorLogger {
         }
 
         public String getStackTrace() {
+            if (error == null) {
+                return "";
+            }
             StringBuilder sb = new StringBuilder();
             for (StackTraceElement element : error.getStackTrace()) {
                 sb.append("\tat ").append(element.toString()).append("\n");
@@ -98,7 +350,7 @@ public class ErrorLogger {
                 timestamp,
                 component,
                 message,
-                error.getMessage()
+                error != null ? error.getMessage() : message
             );
         }
     }
@@ -0,0 +1,119 @@
+package com.lsa.interpreter.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Custom JFR events for the interpreter pipeline. Usage follows the JFR pattern:
+// begin(), do the work, then set fields and commit() only if shouldCommit().
+// With recording off, the event objects are scalar-replaced and cost next to nothing.
+public final class FlightEvents {
+
+    private FlightEvents() {
+        // Holder for event types, prevent instantiation
+    }
+
+    @Name("lsa.FrameCapture")
+    @Label("Frame Capture")
+    @Category({"LSA Interpreter", "Pipeline"})
+    @Description("Grabbing one frame from a video stream")
+    @StackTrace(false)
+    public static class FrameCaptureEvent extends Event {
+        @Label("Stream")
+        public String streamId;
+
+        @Label("Frame Sequence")
+        public long frameSequence;
+
+        @Label("Width")
+        public int width;
+
+        @Label("Height")
+        public int height;
+    }
+
+    @Name("lsa.DetectorStage")
+    @Label("Detector Stage")
+    @Category({"LSA Interpreter", "Pipeline"})
+    @Description("One stage of a gesture or face detector for a single frame")
+    @StackTrace(false)
+    public static class DetectorStageEvent extends Event {
+        @Label("Stream")
+        public String streamId;
+
+        @Label("Frame Sequence")
+        public long frameSequence;
+
+        @Label("Detector")
+        public String detector;
+
+        @Label("Stage")
+        public String stage;
+    }
+
+    @Name("lsa.Fusion")
+    @Label("Fusion Analysis")
+    @Category({"LSA Interpreter", "Pipeline"})
+    @Description("Combining gesture and face observations into a sign")
+    @StackTrace(false)
+    public static class FusionEvent extends Event {
+        @Label("Stream")
+        public String streamId;
+
+        @Label("Frame Sequence")
+        public long frameSequence;
+
+        @Label("Sign")
+        public String sign;
+
+        @Label("Confidence")
+        public double confidence;
+
+        @Label("Candidates")
+        public int candidates;
+    }
+
+    @Name("lsa.Grammar")
+    @Label("Grammar Processing")
+    @Category({"LSA Interpreter", "Pipeline"})
+    @Description("Applying grammar rules to a fused sign")
+    @StackTrace(false)
+    public static class GrammarEvent extends Event {
+        @Label("Stream")
+        public String streamId;
+
+        @Label("Frame Sequence")
+        public long frameSequence;
+
+        @Label("Input Sign")
+        public String inputSign;
+
+        @Label("Output Sign")
+        public String outputSign;
+    }
+
+    @Name("lsa.ListenerDispatch")
+    @Label("Listener Dispatch")
+    @Category({"LSA Interpreter", "Events"})
+    @Description("Delivering one pipeline event to an event bus subscriber")
+    @StackTrace(false)
+    public static class ListenerDispatchEvent extends Event {
+        @Label("Subscriber")
+        public String subscriber;
+
+        @Label("Event Type")
+        public String eventType;
+
+        @Label("Bus Sequence")
+        public long busSequence;
+
+        @Label("Stream")
+        public String streamId;
+
+        @Label("Frame Sequence")
+        public long frameSequence;
+    }
+}
@@ -0,0 +1,189 @@
+package com.lsa.interpreter.util;
+
+import org.opencv.core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Accounting for native Mat memory. OpenCV buffers live outside the Java heap, so the GC
+// never feels pressure from them and an unreleased Mat only goes away when its finalizer
+// happens to run. Pipeline code allocates through this tracker so live native bytes can be
+// attributed to a component and anything left over when a frame ends is reported and freed.
+public class MatTracker {
+    private static final Logger logger = LoggerFactory.getLogger(MatTracker.class);
+
+    private static final MatTracker instance = new MatTracker();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Map<Mat, Allocation> live;
+    private final ThreadLocal<FrameScope> currentScope;
+    private volatile boolean debug;
+
+    private MatTracker() {
+        this.live = new ConcurrentHashMap<>();
+        this.currentScope = new ThreadLocal<>();
+        this.debug = Boolean.getBoolean("lsa.mat.debug");
+        logger.info("MatTracker initialized (allocation sites {})", debug ? "recorded" : "not recorded");
+    }
+
+    public static MatTracker getInstance() {
+        return instance;
+    }
+
+    // Frame-scoped: must be released before the enclosing frame ends
+    public Mat allocate(String component) {
+        return track(component, new Mat());
+    }
+
+    // Owned by a long-lived object (detector buffers, cross-thread handoff); never reported as a frame leak
+    public Mat allocateLongLived(String component) {
+        return trackLongLived(component, new Mat());
+    }
+
+    public <T extends Mat> T track(String component, T mat) {
+        FrameScope scope = currentScope.get();
+        Allocation allocation = new Allocation(component, mat, debug ? callerSite() : null);
+        live.put(mat, allocation);
+        if (scope != null) {
+            scope.allocations.add(allocation);
+        }
+        return mat;
+    }
+
+    public <T extends Mat> T trackLongLived(String component, T mat) {
+        live.put(mat, new Allocation(component, mat, debug ? callerSite() : null));
+        return mat;
+    }
+
+    public void release(Mat mat) {
+        if (mat == null) {
+            return;
+        }
+        live.remove(mat);
+        mat.release();
+    }
+
+    public FrameScope beginFrame(String streamId, long frameSequence) {
+        FrameScope scope = new FrameScope(streamId, frameSequence, currentScope.get());
+        currentScope.set(scope);
+        return scope;
+    }
+
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    public Map<String, Long> getNativeBytesByComponent() {
+        Map<String, Long> bytes = new TreeMap<>();
+        for (Allocation allocation : live.values()) {
+            bytes.merge(allocation.component, allocation.nativeBytes(), Long::sum);
+        }
+        return bytes;
+    }
+
+    public Map<String, Long> getLiveCountByComponent() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Allocation allocation : live.values()) {
+            counts.merge(allocation.component, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    public void logLiveAllocations() {
+        if (live.isEmpty()) {
+            return;
+        }
+        logger.warn("{} tracked Mats still live", live.size());
+        for (Allocation allocation : live.values()) {
+            logger.warn("  {} ({} bytes){}", allocation.component, allocation.nativeBytes(),
+                allocation.site != null ? " allocated at " + allocation.site : "");
+        }
+    }
+
+    private void endFrame(FrameScope scope) {
+        currentScope.set(scope.parent);
+
+        // Anything frame-scoped that is still registered was never released
+        for (Allocation allocation : scope.allocations) {
+            if (live.remove(allocation.mat) == null) {
+                continue;
+            }
+            long bytes = allocation.nativeBytes();
+            allocation.mat.release();
+
+            String message = allocation.site != null
+                ? "Mat leaked by " + allocation.component + " at " + allocation.site
+                : "Mat leaked by " + allocation.component + " (start with -Dlsa.mat.debug=true for allocation sites)";
+            ErrorLogger.getInstance().logError("MatTracker", message);
+            MetricsRegistry.getInstance()
+                .counter("lsa_mat_leaks_total", "Frame-scoped Mats reclaimed at frame end", "component", allocation.component)
+                .inc();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Reclaimed {} bytes leaked by {} in frame {}/{}",
+                    bytes, allocation.component, scope.streamId, scope.frameSequence);
+            }
+        }
+        scope.allocations.clear();
+    }
+
+    private static StackTraceElement callerSite() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(frame -> !frame.getClassName().equals(MatTracker.class.getName()))
+            .findFirst()
+            .map(StackWalker.StackFrame::toStackTraceElement)
+            .orElse(null));
+    }
+
+    private static final class Allocation {
+        private final String component;
+        private final Mat mat;
+        private final StackTraceElement site;
+
+        private Allocation(String component, Mat mat, StackTraceElement site) {
+            this.component = component;
+            this.mat = mat;
+            this.site = site;
+        }
+
+        private long nativeBytes() {
+            // Submatrices share their parent's buffer and are not counted twice
+            return mat.isSubmatrix() ? 0 : mat.total() * mat.elemSize();
+        }
+    }
+
+    public final class FrameScope implements AutoCloseable {
+        private final String streamId;
+        private final long frameSequence;
+        private final FrameScope parent;
+        private final List<Allocation> allocations;
+
+        private FrameScope(String streamId, long frameSequence, FrameScope parent) {
+            this.streamId = streamId;
+            this.frameSequence = frameSequence;
+            this.parent = parent;
+            this.allocations = new ArrayList<>();
+        }
+
+        public long getFrameSequence() {
+            return frameSequence;
+        }
+
+        @Override
+        public void close() {
+            endFrame(this);
+        }
+    }
+}
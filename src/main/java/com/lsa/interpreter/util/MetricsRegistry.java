@@ -0,0 +1,347 @@
+package com.lsa.interpreter.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+public class MetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final MetricsRegistry instance = new MetricsRegistry();
+    private final Map<String, MetricFamily> families;
+    private final Map<String, StreamMetrics> streams;
+
+    private MetricsRegistry() {
+        this.families = new ConcurrentSkipListMap<>();
+        this.streams = new ConcurrentHashMap<>();
+        registerJvmMetrics();
+        logger.info("MetricsRegistry initialized");
+    }
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, MetricType.COUNTER)
+            .children.computeIfAbsent(formatLabels(labels), l -> new Counter());
+    }
+
+    public LatencyHistogram latency(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, MetricType.SUMMARY)
+            .children.computeIfAbsent(formatLabels(labels), l -> new LatencyHistogram());
+    }
+
+    public void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        family(name, help, MetricType.GAUGE).children.put(formatLabels(labels), new Gauge(supplier));
+    }
+
+    // A gauge whose label values are only known at scrape time (e.g. error counts per component)
+    public void gaugeFamily(String name, String help, String labelName, Supplier<Map<String, ? extends Number>> supplier) {
+        family(name, help, MetricType.GAUGE).dynamic = () -> {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, ? extends Number> entry : supplier.get().entrySet()) {
+                sb.append(name).append(formatLabels(labelName, entry.getKey()))
+                    .append(' ').append(entry.getValue().doubleValue()).append('\n');
+            }
+            return sb.toString();
+        };
+    }
+
+    public StreamMetrics stream(String streamId) {
+        return streams.computeIfAbsent(streamId, StreamMetrics::new);
+    }
+
+    // Drops every series labelled with this stream, e.g. once a short-lived pipeline is closed, so
+    // /metrics does not keep reporting it. Metrics already handed out stop being exported.
+    public void removeStream(String streamId) {
+        String label = "stream=\"" + escape(streamId) + "\"";
+        for (MetricFamily family : families.values()) {
+            family.children.keySet().removeIf(labels -> hasLabel(labels, label));
+        }
+        streams.remove(streamId);
+    }
+
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        for (MetricFamily family : families.values()) {
+            sb.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            sb.append("# TYPE ").append(family.name).append(' ').append(family.type.text).append('\n');
+            for (Map.Entry<String, Metric> child : family.children.entrySet()) {
+                child.getValue().write(sb, family.name, child.getKey());
+            }
+            if (family.dynamic != null) {
+                sb.append(family.dynamic.get());
+            }
+        }
+        return sb.toString();
+    }
+
+    private MetricFamily family(String name, String help, MetricType type) {
+        MetricFamily family = families.computeIfAbsent(name, n -> new MetricFamily(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type.text);
+        }
+        return family;
+    }
+
+    private void registerJvmMetrics() {
+        gauge("lsa_jvm_heap_used_bytes", "Heap memory in use",
+            () -> heapUsage().getUsed());
+        gauge("lsa_jvm_heap_committed_bytes", "Heap memory committed by the JVM",
+            () -> heapUsage().getCommitted());
+        gauge("lsa_jvm_heap_max_bytes", "Maximum heap size",
+            () -> heapUsage().getMax());
+        gauge("lsa_native_physical_bytes", "Resident memory of the process as seen by JavaCPP",
+            MetricsRegistry::nativePhysicalBytes);
+        gauge("lsa_error_count", "Errors reported through ErrorLogger",
+            () -> ErrorLogger.getInstance().getTotalErrorCount());
+        gaugeFamily("lsa_error_count_by_component", "Errors reported through ErrorLogger per component", "component",
+            ErrorLogger.getInstance()::getErrorCountsByComponent);
+        gauge("lsa_error_signatures_evicted", "Error signatures dropped from ErrorLogger's bounded table",
+            () -> ErrorLogger.getInstance().getEvictedSignatureCount());
+        gaugeFamily("lsa_mat_native_bytes", "Native bytes held by tracked OpenCV Mats per component", "component",
+            MatTracker.getInstance()::getNativeBytesByComponent);
+        gaugeFamily("lsa_mat_live", "Tracked OpenCV Mats currently allocated per component", "component",
+            MatTracker.getInstance()::getLiveCountByComponent);
+    }
+
+    private static double nativePhysicalBytes() {
+        try {
+            return org.bytedeco.javacpp.Pointer.physicalBytes();
+        } catch (Throwable t) {
+            // JavaCPP natives unavailable on this platform
+            return Double.NaN;
+        }
+    }
+
+    private static MemoryUsage heapUsage() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    }
+
+    private static String formatLabels(String... labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static boolean hasLabel(String labels, String label) {
+        for (int at = labels.indexOf(label); at >= 0; at = labels.indexOf(label, at + 1)) {
+            char before = labels.charAt(at - 1);
+            char after = labels.charAt(at + label.length());
+            if ((before == '{' || before == ',') && (after == ',' || after == '}')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    private enum MetricType {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        SUMMARY("summary");
+
+        private final String text;
+
+        MetricType(String text) {
+            this.text = text;
+        }
+    }
+
+    private static class MetricFamily {
+        private final String name;
+        private final String help;
+        private final MetricType type;
+        private final Map<String, Metric> children;
+        private volatile Supplier<String> dynamic;
+
+        MetricFamily(String name, String help, MetricType type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.children = new ConcurrentSkipListMap<>();
+        }
+    }
+
+    private interface Metric {
+        void write(StringBuilder sb, String name, String labels);
+    }
+
+    public static class Counter implements Metric {
+        // LongAdder stripes updates across cells, so hot-path increments don't contend
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        public void write(StringBuilder sb, String name, String labels) {
+            sb.append(name).append(labels).append(' ').append(value.sum()).append('\n');
+        }
+    }
+
+    private static class Gauge implements Metric {
+        private final DoubleSupplier supplier;
+
+        Gauge(DoubleSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public void write(StringBuilder sb, String name, String labels) {
+            sb.append(name).append(labels).append(' ').append(supplier.getAsDouble()).append('\n');
+        }
+    }
+
+    public static class LatencyHistogram implements Metric {
+        // Log-linear buckets: 4 sub-buckets per power of two of microseconds (~19% resolution)
+        private static final int SUB_BUCKETS = 4;
+        private static final int BUCKET_COUNT = 40 * SUB_BUCKETS;
+
+        private final LongAdder[] buckets;
+        private final LongAdder count;
+        private final LongAdder sumNanos;
+
+        public LatencyHistogram() {
+            this.buckets = new LongAdder[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+            this.count = new LongAdder();
+            this.sumNanos = new LongAdder();
+        }
+
+        public void record(long nanos) {
+            buckets[bucketIndex(Math.max(0, nanos) / 1000)].increment();
+            count.increment();
+            sumNanos.add(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        // Upper bound of the bucket containing the quantile, in nanoseconds
+        public long quantile(double q) {
+            long[] snapshot = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                snapshot[i] = buckets[i].sum();
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return bucketUpperBound(i) * 1000;
+                }
+            }
+            return bucketUpperBound(BUCKET_COUNT - 1) * 1000;
+        }
+
+        @Override
+        public void write(StringBuilder sb, String name, String labels) {
+            for (double q : QUANTILES) {
+                sb.append(name).append(withLabel(labels, "quantile", String.valueOf(q)))
+                    .append(' ').append(quantile(q) / 1e9).append('\n');
+            }
+            sb.append(name).append("_sum").append(labels).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+            sb.append(name).append("_count").append(labels).append(' ').append(count.sum()).append('\n');
+        }
+
+        private static int bucketIndex(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int octave = 63 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) (micros >>> (octave - 2)) & (SUB_BUCKETS - 1);
+            return Math.min((octave - 1) * SUB_BUCKETS + subBucket, BUCKET_COUNT - 1);
+        }
+
+        private static long bucketUpperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index + 1;
+            }
+            int octave = index / SUB_BUCKETS + 1;
+            int subBucket = index % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + subBucket + 1) << (octave - 2);
+        }
+    }
+
+    public class StreamMetrics {
+        private final Counter framesProcessed;
+        private final Counter framesDropped;
+        private long lastFrames;
+        private long lastSampleTime;
+        private double lastFps;
+
+        private StreamMetrics(String streamId) {
+            this.framesProcessed = counter("lsa_frames_processed_total", "Frames processed per stream", "stream", streamId);
+            this.framesDropped = counter("lsa_frames_dropped_total", "Frames dropped per stream", "stream", streamId);
+            this.lastSampleTime = System.nanoTime();
+            gauge("lsa_stream_fps", "Processed frames per second since the previous scrape", this::sampleFps, "stream", streamId);
+        }
+
+        public void frameProcessed() {
+            framesProcessed.inc();
+        }
+
+        public void frameDropped() {
+            framesDropped.inc();
+        }
+
+        private synchronized double sampleFps() {
+            long now = System.nanoTime();
+            long frames = framesProcessed.get();
+            double elapsed = (now - lastSampleTime) / 1e9;
+            if (elapsed >= 0.5) {
+                lastFps = (frames - lastFrames) / elapsed;
+                lastFrames = frames;
+                lastSampleTime = now;
+            }
+            return lastFps;
+        }
+    }
+}
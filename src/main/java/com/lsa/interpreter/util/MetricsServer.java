@@ -0,0 +1,83 @@
+package com.lsa.interpreter.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+public class MetricsServer {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+    private static final int DEFAULT_PORT = 9464;
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final int port;
+    private HttpServer server;
+
+    public MetricsServer() {
+        this(Integer.getInteger("lsa.metrics.port", DEFAULT_PORT));
+    }
+
+    public MetricsServer(int port) {
+        this.registry = MetricsRegistry.getInstance();
+        this.port = port;
+    }
+
+    public void start() {
+        try {
+            // Loopback only: the endpoint is meant for a local scraper or agent
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", this::handleScrape);
+            server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "metrics-server");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            logger.info("Metrics endpoint listening on http://127.0.0.1:{}/metrics", port);
+        } catch (IOException e) {
+            logger.error("Failed to start metrics endpoint on port {}", port, e);
+        }
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            logger.info("Metrics endpoint stopped");
+        }
+    }
+
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        boolean headersSent = false;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                headersSent = true;
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            headersSent = true;
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (Exception e) {
+            logger.error("Error serving metrics scrape", e);
+            // Once a status line is out a second one would only throw and hide this error;
+            // closing the exchange cuts the body short, which the scraper sees as a failure
+            if (!headersSent) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
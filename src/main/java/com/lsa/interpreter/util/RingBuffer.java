@@ -0,0 +1,63 @@
+package com.lsa.interpreter.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RingBuffer<T> {
+    private final Object[] items;
+    private int head;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.items = new Object[capacity];
+    }
+
+    // Adds an item, returning the evicted oldest item when the buffer is full
+    @SuppressWarnings("unchecked")
+    public T add(T item) {
+        T evicted = size == items.length ? (T) items[head] : null;
+        items[head] = item;
+        head = (head + 1) % items.length;
+        size = Math.min(size + 1, items.length);
+        return evicted;
+    }
+
+    // Index 0 is the newest item
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) items[(head - 1 - index + items.length) % items.length];
+    }
+
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(items, null);
+        head = 0;
+        size = 0;
+    }
+}
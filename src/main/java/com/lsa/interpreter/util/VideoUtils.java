@@ -10,17 +10,22 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 
+// Helpers that return a Mat hand ownership to the caller: the result is always a new Mat
+// registered with MatTracker (never the input frame), to be released with MatTracker.release.
 public class VideoUtils {
     private static final Logger logger = LoggerFactory.getLogger(VideoUtils.class);
+    private static final String COMPONENT = "VideoUtils";
 
     private VideoUtils() {
         // Utility class, prevent instantiation
     }
 
     public static Image matToImage(Mat frame) {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat bgr = null;
         try {
             // Convert the frame to BGR format
-            Mat bgr = new Mat();
+            bgr = tracker.allocate(COMPONENT);
             if (frame.channels() == 1) {
                 Imgproc.cvtColor(frame, bgr, Imgproc.COLOR_GRAY2BGR);
             } else {
@@ -41,63 +46,68 @@ public class VideoUtils {
                 ByteBuffer.wrap(buffer),
                 bgr.cols() * bgr.channels());
 
-            // Clean up
-            bgr.release();
-
             return writableImage;
         } catch (Exception e) {
             logger.error("Error converting Mat to Image", e);
             return null;
+        } finally {
+            tracker.release(bgr);
         }
     }
 
     public static Mat resizeFrame(Mat frame, int width, int height) {
+        Mat resized = MatTracker.getInstance().allocate(COMPONENT);
         try {
-            Mat resized = new Mat();
             Imgproc.resize(frame, resized, new org.opencv.core.Size(width, height));
-            return resized;
         } catch (Exception e) {
             logger.error("Error resizing frame", e);
-            return frame;
+            frame.copyTo(resized);
         }
+        return resized;
     }
 
     public static Mat rotateFrame(Mat frame, double angle) {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat rotated = tracker.allocate(COMPONENT);
+        Mat rotationMatrix = null;
         try {
             org.opencv.core.Point center = new org.opencv.core.Point(frame.cols() / 2.0, frame.rows() / 2.0);
-            Mat rotationMatrix = Imgproc.getRotationMatrix2D(center, angle, 1.0);
-            Mat rotated = new Mat();
+            rotationMatrix = tracker.track(COMPONENT, Imgproc.getRotationMatrix2D(center, angle, 1.0));
             Imgproc.warpAffine(frame, rotated, rotationMatrix, frame.size());
-            return rotated;
         } catch (Exception e) {
             logger.error("Error rotating frame", e);
-            return frame;
+            frame.copyTo(rotated);
+        } finally {
+            tracker.release(rotationMatrix);
         }
+        return rotated;
     }
 
     public static Mat adjustBrightness(Mat frame, double alpha, double beta) {
+        Mat adjusted = MatTracker.getInstance().allocate(COMPONENT);
         try {
-            Mat adjusted = new Mat();
             frame.convertTo(adjusted, -1, alpha, beta);
-            return adjusted;
         } catch (Exception e) {
             logger.error("Error adjusting frame brightness", e);
-            return frame;
+            frame.copyTo(adjusted);
         }
+        return adjusted;
     }
 
     public static Mat equalizeHistogram(Mat frame) {
+        MatTracker tracker = MatTracker.getInstance();
+        Mat equalized = tracker.allocate(COMPONENT);
+        Mat yuv = null;
+        java.util.List<Mat> channels = new java.util.ArrayList<>();
         try {
-            Mat equalized = new Mat();
             if (frame.channels() == 1) {
                 Imgproc.equalizeHist(frame, equalized);
             } else {
                 // Convert to YUV
-                Mat yuv = new Mat();
+                yuv = tracker.allocate(COMPONENT);
                 Imgproc.cvtColor(frame, yuv, Imgproc.COLOR_BGR2YUV);
 
                 // Split channels
-                java.util.List<Mat> channels = new java.util.ArrayList<>();
                 org.opencv.core.Core.split(yuv, channels);
 
                 // Equalize Y channel
@@ -108,15 +118,15 @@ public class VideoUtils {
 
                 // Convert back to BGR
                 Imgproc.cvtColor(yuv, equalized, Imgproc.COLOR_YUV2BGR);
-
-                // Clean up
-                yuv.release();
-                channels.forEach(Mat::release);
             }
-            return equalized;
         } catch (Exception e) {
             logger.error("Error equalizing frame histogram", e);
-            return frame;
+            frame.copyTo(equalized);
+        } finally {
+            // Clean up
+            tracker.release(yuv);
+            channels.forEach(Mat::release);
         }
+        return equalized;
     }
 }